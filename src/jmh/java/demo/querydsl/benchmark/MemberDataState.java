@@ -0,0 +1,69 @@
+package demo.querydsl.benchmark;
+
+import demo.querydsl.QuerydslApplication;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import demo.querydsl.repository.MemberJpaRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 공용 상태. H2 메모리 DB 로 JPA 계층만 띄우고 memberCount 만큼 데이터 적재
+ * 크기 변경: build.gradle 의 jmh { benchmarkParameters = [memberCount: ['100000']] }
+ */
+@State(Scope.Benchmark)
+public class MemberDataState {
+
+    static final int TEAM_COUNT = 10;
+
+    @Param({"10000"})
+    public int memberCount;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=bench");
+
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        MemberJpaRepository memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < TEAM_COUNT; i++) {
+                Team team = new Team("team" + i);
+                entityManager.persist(team);
+                teams.add(team);
+            }
+
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < memberCount; i++) {
+                members.add(new Member("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+            }
+            memberJpaRepository.saveAll(members);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,69 @@
+package demo.querydsl.benchmark;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberTeamDto;
+import demo.querydsl.repository.MemberJpaRepository;
+import demo.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동적 검색 경로별 비교 (불린빌더 / where 파라미터 / 커스텀 리포지토리 / 페이징)
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberRepositoryBenchmark {
+
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+    MemberCond memberCond;
+    Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        memberJpaRepository = data.getBean(MemberJpaRepository.class);
+        memberRepository = data.getBean(MemberRepository.class);
+
+        memberCond = new MemberCond();
+        memberCond.setTeamName("team3");
+        memberCond.setAgeGoe(20);
+        memberCond.setAgeLoe(40);
+
+        pageable = PageRequest.of(1, 20);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(memberCond);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByWhereParam() {
+        return memberJpaRepository.searchByWhereParam(memberCond);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(memberCond);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepository.searchPageSimple(memberCond, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepository.searchPageComplex(memberCond, pageable);
+    }
+}
@@ -0,0 +1,91 @@
+package demo.querydsl.benchmark;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import demo.querydsl.dto.MemberDto;
+import demo.querydsl.dto.QMemberDto;
+import demo.querydsl.dto.UserDto;
+import demo.querydsl.projection.FastProjections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static demo.querydsl.entity.QMember.member;
+
+/**
+ * DTO 프로젝션 방식별 비교 (QuerydslMiddleTest 의 bean / fields / constructor / @QueryProjection / FastProjections)
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectionBenchmark {
+
+    JPAQueryFactory queryFactory;
+
+    @Setup(Level.Trial)
+    public void setUp(MemberDataState data) {
+        queryFactory = new JPAQueryFactory(data.getBean(EntityManager.class));
+    }
+
+    @Benchmark
+    public List<MemberDto> bean() {
+        return queryFactory
+                .select(Projections.bean(MemberDto.class, member.name, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> fields() {
+        return queryFactory
+                .select(Projections.fields(MemberDto.class, member.name, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<UserDto> fieldsAlias() {
+        return queryFactory
+                .select(Projections.fields(UserDto.class, member.name.as("userName"), member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> fastBean() {
+        return queryFactory
+                .select(FastProjections.bean(MemberDto.class, member.name, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<UserDto> fastBeanAlias() {
+        return queryFactory
+                .select(FastProjections.bean(UserDto.class, member.name.as("userName"), member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberDto.class, member.name, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+        return queryFactory
+                .select(new QMemberDto(member.name, member.age))
+                .from(member)
+                .fetch();
+    }
+}
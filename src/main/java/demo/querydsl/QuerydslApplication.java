@@ -3,8 +3,10 @@ package demo.querydsl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Component;
 
+@EnableScheduling
 @SpringBootApplication
 public class QuerydslApplication {
 
@@ -4,6 +4,7 @@ import demo.querydsl.entity.Member;
 import demo.querydsl.entity.Team;
 import demo.querydsl.repository.MemberJpaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +13,8 @@ import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Profile("local")
 @Component
@@ -29,6 +32,8 @@ public class InitMember {
     static class InitMemberService {
         @PersistenceContext
         private EntityManager entityManager;
+        @Autowired
+        private MemberJpaRepository memberJpaRepository;
 
         @Transactional
         public void init() {
@@ -38,11 +43,12 @@ public class InitMember {
             entityManager.persist(teamB);
 
 
+            List<Member> members = new ArrayList<>();
             for (int i = 0; i < 100; i++) {
                 Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                entityManager.persist(new Member("member" + i, i, selectedTeam));
-
+                members.add(new Member("member" + i, i, selectedTeam));
             }
+            memberJpaRepository.saveAll(members);
         }
     }
 
@@ -1,22 +1,132 @@
 package demo.querydsl.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberCountStrategy;
+import demo.querydsl.dto.MemberKeysetSlice;
+import demo.querydsl.dto.MemberPage;
 import demo.querydsl.dto.MemberTeamDto;
+import demo.querydsl.repository.InvalidSearchConditionException;
+import demo.querydsl.repository.MemberAsyncRepository;
 import demo.querydsl.repository.MemberJpaRepository;
+import demo.querydsl.repository.MemberRepository;
+import demo.querydsl.repository.MemberSearchCoalescer;
+import demo.querydsl.search.MemberSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final MemberAsyncRepository memberAsyncRepository;
+    private final MemberSearchCoalescer memberSearchCoalescer;
+    private final MemberSnapshot memberSnapshot;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * 같은 조건으로 동시에 들어온 요청은 쿼리 한 번으로 합쳐서 응답
+     * backend=MEMORY 면 메모리 스냅샷에서 조회 (스냅샷이 아직 없으면 DB)
+     */
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberCond memberCond) {
-        return memberJpaRepository.searchByWhereParam(memberCond);
+    public List<MemberTeamDto> searchMemberV1(MemberCond memberCond,
+                                              @RequestParam(defaultValue = "DB") SearchBackend backend) {
+        if (backend == SearchBackend.MEMORY && memberSnapshot.isReady()) {
+            return memberSnapshot.search(memberCond);
+        }
+        return memberSearchCoalescer.searchByWhereParam(memberCond);
+    }
+
+    /**
+     * 결과를 메모리에 모으지 않고 한 줄에 한 건씩 NDJSON 으로 내려보냄
+     */
+    @GetMapping(value = "/v1/members/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMemberV1(MemberCond memberCond) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            memberJpaRepository.streamByWhereParam(memberCond, memberTeamDto -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(memberTeamDto));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/v1/members/page")
+    public CompletableFuture<Page<MemberTeamDto>> searchMemberPageV1(MemberCond memberCond, Pageable pageable) {
+        return memberAsyncRepository.searchPage(memberCond, pageable);
+    }
+
+    /**
+     * 여러 팀을 팀별로 나눠 동시에 조회한 뒤 정렬 순서대로 병합
+     */
+    @GetMapping("/v1/members/teams")
+    public Page<MemberTeamDto> searchMemberTeamsV1(MemberCond memberCond,
+                                                   @RequestParam List<String> teamNames,
+                                                   Pageable pageable) {
+        return memberRepository.searchTeamsFanOut(memberCond, teamNames, pageable);
+    }
+
+    /**
+     * 전체 건수 계산 방식을 요청마다 선택, 응답의 totalExact 로 정확한 값인지 표시
+     */
+    @GetMapping("/v2/members/page")
+    public MemberPage searchMemberPageV2(MemberCond memberCond, Pageable pageable,
+                                        @RequestParam(defaultValue = "EXACT") MemberCountStrategy count) {
+        return memberRepository.searchPage(memberCond, pageable, count);
+    }
+
+    @GetMapping("/v2/members")
+    public MemberKeysetSlice searchMemberV2(MemberCond memberCond,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size) {
+        return memberRepository.searchKeyset(memberCond, cursor, size);
+    }
+
+    /**
+     * 잘못된 size/커서/정렬 속성은 500 이 아니라 400
+     */
+    @ExceptionHandler(InvalidSearchConditionException.class)
+    public ResponseEntity<String> invalidSearchCondition(InvalidSearchConditionException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * 비동기 검색 executor 가 가득 차면 503, 잠시 후 다시 시도하도록 Retry-After
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> searchRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("member search is busy, retry later");
     }
 }
@@ -0,0 +1,9 @@
+package demo.querydsl.controller;
+
+/**
+ * 회원 검색 백엔드, 요청마다 backend 파라미터로 선택
+ */
+public enum SearchBackend {
+    DB,
+    MEMORY
+}
@@ -0,0 +1,24 @@
+package demo.querydsl.controller;
+
+import demo.querydsl.dto.TeamNameStatsDto;
+import demo.querydsl.repository.TeamStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    /**
+     * 같은 이름의 팀이 여럿이면 합산해서 응답
+     */
+    @GetMapping("/v1/teams/{teamName}/stats")
+    public ResponseEntity<TeamNameStatsDto> teamStatsV1(@PathVariable String teamName) {
+        return ResponseEntity.of(teamStatsRepository.findStatsByTeamName(teamName));
+    }
+}
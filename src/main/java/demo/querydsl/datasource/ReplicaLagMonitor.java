@@ -0,0 +1,48 @@
+package demo.querydsl.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주기적으로 각 레플리카의 Seconds_Behind_Master 를 조회해서 라우팅에 반영
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LAG_COLUMN = "Seconds_Behind_Master";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:5000}")
+    public void check() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            Long lagSeconds = lagOf(replica.getValue());
+            routingDataSource.updateLag(replica.getKey(), lagSeconds);
+            if (!routingDataSource.isInRotation(replica.getKey())) {
+                log.warn("replica {} out of rotation, lag={}s", replica.getKey(), lagSeconds);
+            }
+        }
+    }
+
+    private Long lagOf(DataSource dataSource) {
+        try {
+            List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList("show slave status");
+            if (rows.isEmpty() || rows.get(0).get(LAG_COLUMN) == null) {
+                return null; // 복제 설정 없음 또는 복제 중단
+            }
+            return ((Number) rows.get(0).get(LAG_COLUMN)).longValue();
+        } catch (RuntimeException e) {
+            log.warn("replica lag check failed", e);
+            return null;
+        }
+    }
+}
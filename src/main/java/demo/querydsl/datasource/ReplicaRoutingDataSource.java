@@ -0,0 +1,110 @@
+package demo.querydsl.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * readOnly 트랜잭션은 레플리카로 (라운드로빈), 나머지는 프라이머리로
+ * 지연(lag)이 maxLagSeconds 를 넘거나 상태를 알 수 없는 레플리카는 로테이션에서 제외,
+ * 쓸 수 있는 레플리카가 없으면 프라이머리로 fallback
+ * 트랜잭션 시작 후에 커넥션을 얻도록 LazyConnectionDataSourceProxy 로 감싸서 쓸 것
+ * 라우팅 대상 풀은 빈이 아니므로 이 빈이 종료될 때 같이 닫는다
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Set<String> laggingReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger counter = new AtomicInteger();
+    private final long maxLagSeconds;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagSeconds) {
+        if (replicas.containsKey(PRIMARY)) {
+            throw new IllegalArgumentException("레플리카 이름으로 " + PRIMARY + " 사용 불가");
+        }
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.replicaNames = new ArrayList<>(replicas.keySet());
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicaNames.size();
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get(Math.floorMod(counter.getAndIncrement(), size));
+            if (!laggingReplicas.contains(name)) {
+                return name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * @param replicaName
+     * @param lagSeconds 복제 지연(초), 복제 중단/조회 실패면 null
+     */
+    public void updateLag(String replicaName, Long lagSeconds) {
+        if (lagSeconds == null || lagSeconds > maxLagSeconds) {
+            laggingReplicas.add(replicaName);
+        } else {
+            laggingReplicas.remove(replicaName);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isInRotation(String replicaName) {
+        return replicas.containsKey(replicaName) && !laggingReplicas.contains(replicaName);
+    }
+
+    /**
+     * 레플리카, 프라이머리 순으로 닫는다 (AutoCloseable 이 아닌 DataSource 는 그대로 둠)
+     */
+    @PreDestroy
+    public void close() {
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            close(replica.getKey(), replica.getValue());
+        }
+        close(PRIMARY, primary);
+    }
+
+    private static void close(String name, DataSource dataSource) {
+        if (!(dataSource instanceof AutoCloseable)) {
+            return;
+        }
+        try {
+            ((AutoCloseable) dataSource).close();
+        } catch (Exception e) {
+            log.warn("datasource {} close failed", name, e);
+        }
+    }
+}
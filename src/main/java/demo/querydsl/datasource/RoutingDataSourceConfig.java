@@ -0,0 +1,75 @@
+package demo.querydsl.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * datasource.routing.enabled=true 일 때만 spring.datasource 대신 프라이머리/레플리카 라우팅 사용
+ * 풀 설정(spring.datasource.hikari.*)은 모든 노드에 같이 적용하고, 접속 정보와 풀 이름만 노드별로 덮어쓴다
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariConfig routingHikariConfig() {
+        return new HikariConfig();
+    }
+
+    /**
+     * 종료될 때 라우팅 대상 풀도 같이 닫힌다 (ReplicaRoutingDataSource.close)
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(RoutingDataSourceProperties properties,
+                                                             HikariConfig routingHikariConfig,
+                                                             MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (RoutingDataSourceProperties.Node replica : properties.getReplicas()) {
+            replicas.put(replica.getName(), build(replica.getName(), replica, routingHikariConfig, meterRegistry));
+        }
+        DataSource primary = build(ReplicaRoutingDataSource.PRIMARY, properties.getPrimary(), routingHikariConfig, meterRegistry);
+        return new ReplicaRoutingDataSource(primary, replicas, properties.getMaxLagSeconds());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource);
+    }
+
+    /**
+     * 라우팅 대상 풀은 빈이 아니라서 actuator 가 자동으로 hikaricp 메트릭을 붙이지 않으므로 직접 등록
+     * 풀은 첫 커넥션 요청 때 시작 (기동 시 레플리카가 내려가 있어도 실패하지 않음)
+     */
+    private static DataSource build(String name, RoutingDataSourceProperties.Node node,
+                                    HikariConfig base, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        base.copyStateTo(dataSource);
+        dataSource.setDriverClassName(node.getDriverClassName());
+        dataSource.setJdbcUrl(node.getUrl());
+        dataSource.setUsername(node.getUsername());
+        dataSource.setPassword(node.getPassword());
+        dataSource.setPoolName("querydsl-" + name);
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+}
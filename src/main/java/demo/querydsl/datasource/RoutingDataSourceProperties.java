@@ -0,0 +1,29 @@
+package demo.querydsl.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+    private long maxLagSeconds = 5;
+    private Node primary = new Node();
+    private List<Node> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String name;
+        private String driverClassName;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,37 @@
+package demo.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 청크 단위 벌크 수정/삭제 결과 (청크별 영향받은 행 수, 대상 id 범위)
+ */
+@Getter
+@ToString
+public class BulkMutationResult {
+
+    private final List<Long> affectedPerChunk;
+    private final Long minId;
+    private final Long maxId;
+
+    public BulkMutationResult(List<Long> affectedPerChunk, Long minId, Long maxId) {
+        this.affectedPerChunk = Collections.unmodifiableList(affectedPerChunk);
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (Long affected : affectedPerChunk) {
+            total += affected;
+        }
+        return total;
+    }
+
+    public boolean contains(Long id) {
+        return id != null && minId != null && minId <= id && id <= maxId;
+    }
+}
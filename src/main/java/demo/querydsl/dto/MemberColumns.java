@@ -0,0 +1,105 @@
+package demo.querydsl.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 id / 나이 / 팀을 컬럼별 primitive 배열로 보관 (엔티티, Tuple, 박싱 없음)
+ * 팀 이름은 사전 인코딩: teamCodes[i] 는 teamDictionary 의 인덱스, 팀 없으면 NO_TEAM
+ */
+public class MemberColumns {
+
+    public static final int NO_TEAM = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] memberIds = new long[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private int[] teamCodes = new int[INITIAL_CAPACITY];
+    private final List<String> teamDictionary = new ArrayList<>();
+    private final Map<String, Integer> teamCodeByName = new HashMap<>();
+    private int size;
+
+    public void add(long memberId, int age, String teamName) {
+        if (size == memberIds.length) {
+            int capacity = size * 2;
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamCodes = Arrays.copyOf(teamCodes, capacity);
+        }
+        memberIds[size] = memberId;
+        ages[size] = age;
+        teamCodes[size] = teamName == null ? NO_TEAM : encode(teamName);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getMemberId(int index) {
+        return memberIds[index];
+    }
+
+    public int getAge(int index) {
+        return ages[index];
+    }
+
+    public int getTeamCode(int index) {
+        return teamCodes[index];
+    }
+
+    public String getTeamName(int index) {
+        int code = teamCodes[index];
+        return code == NO_TEAM ? null : teamDictionary.get(code);
+    }
+
+    public List<String> getTeamDictionary() {
+        return Collections.unmodifiableList(teamDictionary);
+    }
+
+    /**
+     * 팀별 count / sum / min / max (QuerydslBasicTest.group 과 같은 집계를 배열 한 번 순회로)
+     * 팀 없는 회원은 제외
+     */
+    public List<TeamAgeStatsDto> aggregateByTeam() {
+        int teamCount = teamDictionary.size();
+        long[] counts = new long[teamCount];
+        long[] sums = new long[teamCount];
+        int[] mins = new int[teamCount];
+        int[] maxs = new int[teamCount];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        Arrays.fill(maxs, Integer.MIN_VALUE);
+
+        for (int i = 0; i < size; i++) {
+            int code = teamCodes[i];
+            if (code == NO_TEAM) {
+                continue;
+            }
+            int age = ages[i];
+            counts[code]++;
+            sums[code] += age;
+            mins[code] = Math.min(mins[code], age);
+            maxs[code] = Math.max(maxs[code], age);
+        }
+
+        List<TeamAgeStatsDto> result = new ArrayList<>(teamCount);
+        for (int code = 0; code < teamCount; code++) {
+            result.add(new TeamAgeStatsDto(teamDictionary.get(code), counts[code], sums[code], mins[code], maxs[code]));
+        }
+        return result;
+    }
+
+    private int encode(String teamName) {
+        Integer code = teamCodeByName.get(teamName);
+        if (code == null) {
+            code = teamDictionary.size();
+            teamDictionary.add(teamName);
+            teamCodeByName.put(teamName, code);
+        }
+        return code;
+    }
+}
@@ -9,4 +9,6 @@ public class MemberCond {
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+    // null 이면 EXACT, PREFIX/CONTAINS 는 MemberRepositoryCustom 검색에서 이름 인덱스로 처리
+    private MemberNameMatch memberNameMatch;
 }
@@ -0,0 +1,11 @@
+package demo.querydsl.dto;
+
+/**
+ * 페이징 전체 건수 계산 방식
+ * EXACT: 매번 count 쿼리, CACHED: MemberCond 별 캐시 (TTL, 쓰기 시 무효화), APPROXIMATE: 통계/EXPLAIN 추정치
+ */
+public enum MemberCountStrategy {
+    EXACT,
+    CACHED,
+    APPROXIMATE
+}
@@ -0,0 +1,44 @@
+package demo.querydsl.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징 커서 (마지막으로 읽은 age, memberId)
+ * 클라이언트에는 base64 문자열로만 노출
+ */
+@Getter
+public class MemberKeysetCursor {
+
+    private final int age;
+    private final Long memberId;
+
+    public MemberKeysetCursor(int age, Long memberId) {
+        this.age = age;
+        this.memberId = memberId;
+    }
+
+    public static MemberKeysetCursor of(MemberTeamDto last) {
+        return new MemberKeysetCursor(last.getAge(), last.getMemberId());
+    }
+
+    public String encode() {
+        String raw = age + ":" + memberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberKeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("잘못된 커서: " + token);
+            }
+            return new MemberKeysetCursor(Integer.parseInt(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서: " + token, e);
+        }
+    }
+}
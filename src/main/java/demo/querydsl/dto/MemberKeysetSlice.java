@@ -0,0 +1,23 @@
+package demo.querydsl.dto;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과, 다음 페이지 커서 포함 (마지막 페이지면 null)
+ */
+public class MemberKeysetSlice extends SliceImpl<MemberTeamDto> {
+
+    private final String nextCursor;
+
+    public MemberKeysetSlice(List<MemberTeamDto> content, Pageable pageable, boolean hasNext) {
+        super(content, pageable, hasNext);
+        this.nextCursor = hasNext ? MemberKeysetCursor.of(content.get(content.size() - 1)).encode() : null;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,10 @@
+package demo.querydsl.dto;
+
+/**
+ * 회원 이름 검색 방식
+ */
+public enum MemberNameMatch {
+    EXACT,
+    PREFIX,
+    CONTAINS
+}
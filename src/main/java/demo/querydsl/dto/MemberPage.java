@@ -0,0 +1,23 @@
+package demo.querydsl.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 페이징 결과, totalExact 가 false 면 전체 건수는 캐시나 추정치
+ */
+public class MemberPage extends PageImpl<MemberTeamDto> {
+
+    private final boolean totalExact;
+
+    public MemberPage(List<MemberTeamDto> content, Pageable pageable, long total, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,24 @@
+package demo.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamAgeStatsDto {
+    private String teamName;
+    private long count;
+    private long ageSum;
+    private int ageMin;
+    private int ageMax;
+
+    public TeamAgeStatsDto(String teamName, long count, long ageSum, int ageMin, int ageMax) {
+        this.teamName = teamName;
+        this.count = count;
+        this.ageSum = ageSum;
+        this.ageMin = ageMin;
+        this.ageMax = ageMax;
+    }
+
+    public double getAgeAvg() {
+        return count == 0 ? 0 : (double) ageSum / count;
+    }
+}
@@ -0,0 +1,29 @@
+package demo.querydsl.dto;
+
+import lombok.Data;
+
+/**
+ * 팀 이름별 회원 통계, 같은 이름의 팀이 여럿이면 합산 (teamCount)
+ */
+@Data
+public class TeamNameStatsDto {
+    private String teamName;
+    private long teamCount;
+    private long memberCount;
+    private long ageSum;
+    private Integer ageMin;
+    private Integer ageMax;
+
+    public TeamNameStatsDto(String teamName, Long teamCount, Long memberCount, Long ageSum, Integer ageMin, Integer ageMax) {
+        this.teamName = teamName;
+        this.teamCount = teamCount;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.ageMin = ageMin;
+        this.ageMax = ageMax;
+    }
+
+    public double getAgeAvg() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,46 @@
+package demo.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/**
+ * 팀별 회원 통계 (미리 집계해둔 테이블)
+ * Member 쓰기 시 TeamStatsEventListener 가 SQL 로 직접 갱신하므로 JPA 로는 읽기만 한다
+ * 회원이 한 명도 없었던 팀은 행이 없음
+ */
+@Entity
+@Immutable
+@Table(name = "team_stats", indexes = @Index(name = "idx_team_stats_team_name", columnList = "team_name"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "team_name")
+    private String teamName;
+
+    @Column(name = "member_count")
+    private long memberCount;
+
+    @Column(name = "age_sum")
+    private long ageSum;
+
+    @Column(name = "age_min")
+    private Integer ageMin;
+
+    @Column(name = "age_max")
+    private Integer ageMax;
+
+    public double getAgeAvg() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
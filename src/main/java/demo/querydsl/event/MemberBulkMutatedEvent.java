@@ -0,0 +1,20 @@
+package demo.querydsl.event;
+
+import demo.querydsl.dto.BulkMutationResult;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * JPQL 벌크 수정/삭제의 마지막 청크가 커밋된 뒤 발행 (MemberBulkRepository)
+ * 벌크 JPQL 은 엔티티 이벤트가 없으므로 이름 인덱스/스냅샷/건수 캐시/team_stats 는 이 이벤트로 다시 맞춘다
+ */
+@Getter
+@ToString
+public class MemberBulkMutatedEvent {
+
+    private final BulkMutationResult result;
+
+    public MemberBulkMutatedEvent(BulkMutationResult result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,82 @@
+package demo.querydsl.event;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 커밋된 엔티티 insert/update/delete 를 받는 hibernate 리스너 공통 부분
+ * 빈 초기화 때 EventListenerRegistry 에 등록하고, 생성자로 넘긴 엔티티 타입만 이벤트를 받는다
+ * 롤백된 변경은 전달되지 않음, 하위 클래스는 필요한 onPost* 만 구현
+ */
+public abstract class PostCommitEntityListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<Class<?>> entityTypes;
+
+    protected PostCommitEntityListener(EntityManagerFactory entityManagerFactory, Class<?>... entityTypes) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityTypes = Arrays.asList(entityTypes);
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        for (Class<?> entityType : entityTypes) {
+            if (entityType.isAssignableFrom(persister.getMappedClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+}
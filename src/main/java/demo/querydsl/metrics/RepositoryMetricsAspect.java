@@ -0,0 +1,151 @@
+package demo.querydsl.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리포지토리 메소드별 쿼리 계측
+ * - repository.query : 실행 시간 (p50, p99)
+ * - repository.query.rows : 반환 건수
+ * - repository.query.statements : 메소드 호출별 실행된 SQL 수
+ * - repository.query.n_plus_one : 트랜잭션 하나에서 실행된 SQL 수가 임계치를 넘으면 N+1 의심으로 카운트
+ *   (트랜잭션 완료 시점에 판단, 여러 리포지토리 호출로 나뉜 N+1 도 잡는다. 트랜잭션 밖 호출은 호출별로 판단)
+ * 느린 쿼리만 조건(MemberCond 등 인자)과 함께 로그
+ */
+@Slf4j
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final long slowQueryMillis;
+    private final int nPlusOneThreshold;
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry,
+                                   @Value("${repository.metrics.slow-query-millis:200}") long slowQueryMillis,
+                                   @Value("${repository.metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryMillis = slowQueryMillis;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Around("execution(public * demo.querydsl.repository.MemberJpaRepository.*(..))" +
+            " || execution(public * demo.querydsl.repository.MemberRepositoryImpl.*(..))" +
+            " || execution(public * demo.querydsl.repository.TeamJpaRepository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        int statementsBefore = StatementCounter.current();
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            joinTransaction(method, statementsBefore);
+        }
+        long start = System.nanoTime();
+
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            int statements = StatementCounter.current() - statementsBefore;
+            record(method, elapsedNanos, statements, result);
+            if (!inTransaction) {
+                checkNPlusOne(method, statements, method);
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            if (elapsedMillis >= slowQueryMillis) {
+                log.warn("slow query {} {}ms statements={} args={}",
+                        method, elapsedMillis, statements, Arrays.toString(joinPoint.getArgs()));
+            }
+        }
+    }
+
+    private void record(String method, long elapsedNanos, int statements, Object result) {
+        Timer.builder("repository.query")
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("repository.query.statements")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(statements);
+
+        long rows = rowsOf(result);
+        if (rows >= 0) {
+            DistributionSummary.builder("repository.query.rows")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+    }
+
+    /**
+     * 트랜잭션의 첫 리포지토리 호출 때 시작 시점 SQL 수를 기록하고 완료 시점에 합계로 판단
+     */
+    private void joinTransaction(String method, int statementsBefore) {
+        TransactionStatements transaction = (TransactionStatements) TransactionSynchronizationManager.getResource(this);
+        if (transaction == null) {
+            transaction = new TransactionStatements(method, statementsBefore);
+            TransactionSynchronizationManager.bindResource(this, transaction);
+            TransactionSynchronizationManager.registerSynchronization(transaction);
+        }
+        transaction.methods.add(method);
+    }
+
+    private void checkNPlusOne(String method, int statements, Object methods) {
+        if (statements > nPlusOneThreshold) {
+            meterRegistry.counter("repository.query.n_plus_one", "method", method).increment();
+            log.warn("possible N+1 in {}: {} statements, repository calls {}", method, statements, methods);
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        return -1;
+    }
+
+    /**
+     * method 태그는 트랜잭션에서 처음 호출된 리포지토리 메소드
+     */
+    private class TransactionStatements implements TransactionSynchronization {
+        private final String firstMethod;
+        private final int statementsBefore;
+        private final Set<String> methods = new LinkedHashSet<>();
+
+        TransactionStatements(String firstMethod, int statementsBefore) {
+            this.firstMethod = firstMethod;
+            this.statementsBefore = statementsBefore;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RepositoryMetricsAspect.this);
+            checkNPlusOne(firstMethod, StatementCounter.current() - statementsBefore, methods);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package demo.querydsl.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * hibernate 가 실행하는 SQL 수를 스레드별로 센다 (hibernate.session_factory.statement_inspector 로 등록)
+ * SQL 은 수정하지 않고 그대로 돌려줌
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,53 @@
+package demo.querydsl.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * FastProjections.bean 의 결과. 미리 만든 생성자/setter 람다로 행을 DTO 로 변환
+ * null 값은 QBean 과 같이 건너뜀 (primitive 필드 기본값 유지)
+ */
+class FastBean<T> extends FactoryExpressionBase<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Expression<?>> args;
+    private final transient Supplier<T> constructor;
+    private final transient BiConsumer<Object, Object>[] writers;
+
+    @SuppressWarnings("unchecked")
+    FastBean(Class<? extends T> type, List<Expression<?>> args, Supplier<T> constructor,
+             List<BiConsumer<Object, Object>> writers) {
+        super(type);
+        this.args = Collections.unmodifiableList(args);
+        this.constructor = constructor;
+        this.writers = writers.toArray(new BiConsumer[0]);
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public T newInstance(Object... values) {
+        T bean = constructor.get();
+        for (int i = 0; i < writers.length; i++) {
+            if (values[i] != null) {
+                writers[i].accept(bean, values[i]);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+}
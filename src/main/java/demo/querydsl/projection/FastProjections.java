@@ -0,0 +1,129 @@
+package demo.querydsl.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Projections.bean / fields 대체
+ * 행마다 리플렉션을 쓰지 않고, DTO 클래스별로 기본 생성자와 setter 를 LambdaMetafactory 로 만든 람다로 캐시해서 쓴다
+ * setter 가 없으면 필드 MethodHandle 로 쓴다, 별칭(member.name.as("userName"))은 Projections.fields 와 동일하게 동작
+ * ex) select(FastProjections.bean(UserDto.class, member.name.as("userName"), member.age))
+ */
+public final class FastProjections {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Class<?>, Supplier<?>> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<String, BiConsumer<Object, Object>>> WRITERS = new ConcurrentHashMap<>();
+
+    private FastProjections() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FactoryExpression<T> bean(Class<T> type, Expression<?>... exprs) {
+        List<Expression<?>> args = new ArrayList<>(exprs.length);
+        List<BiConsumer<Object, Object>> writers = new ArrayList<>(exprs.length);
+        Map<String, BiConsumer<Object, Object>> typeWriters = WRITERS.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+
+        for (Expression<?> expr : exprs) {
+            String property;
+            if (expr instanceof Path) {
+                property = ((Path<?>) expr).getMetadata().getName();
+                args.add(expr);
+            } else if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+                Operation<?> alias = (Operation<?>) expr;
+                property = ((Path<?>) alias.getArg(1)).getMetadata().getName();
+                args.add(alias.getArg(0));
+            } else {
+                throw new IllegalArgumentException("경로 또는 별칭만 지원: " + expr);
+            }
+            writers.add(typeWriters.computeIfAbsent(property, name -> writerOf(type, name)));
+        }
+
+        Supplier<T> constructor = (Supplier<T>) CONSTRUCTORS.computeIfAbsent(type, FastProjections::constructorOf);
+        return new FastBean<>(type, args, constructor, writers);
+    }
+
+    private static Supplier<?> constructorOf(Class<?> type) {
+        try {
+            MethodHandle constructor = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(type));
+            return (Supplier<?>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(type.getName() + " 에 public 기본 생성자가 필요", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> writerOf(Class<?> type, String property) {
+        try {
+            Method setter = findSetter(type, property);
+            if (setter != null) {
+                Class<?> valueType = MethodType.methodType(setter.getParameterTypes()[0]).wrap().returnType();
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        LOOKUP.unreflect(setter),
+                        MethodType.methodType(void.class, type, valueType));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            }
+
+            Field field = findField(type, property);
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(type.getName() + "." + property + " 설정 실패", e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(type.getName() + " 에 " + property + " setter/필드가 없음", e);
+        }
+    }
+
+    private static Method findSetter(Class<?> type, String property) {
+        String name = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Field findField(Class<?> type, String property) throws NoSuchFieldException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(property);
+            } catch (NoSuchFieldException e) {
+                // 상위 클래스에서 계속 찾음
+            }
+        }
+        throw new NoSuchFieldException(property);
+    }
+}
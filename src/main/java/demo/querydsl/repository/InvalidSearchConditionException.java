@@ -0,0 +1,16 @@
+package demo.querydsl.repository;
+
+/**
+ * 클라이언트가 보낸 검색 조건/페이징 파라미터가 잘못된 경우 (컨트롤러에서 400)
+ * IllegalArgumentException 을 상속하지 않아서 리포지토리 프록시의 예외 변환(InvalidDataAccessApiUsageException)을 거치지 않는다
+ */
+public class InvalidSearchConditionException extends RuntimeException {
+
+    public InvalidSearchConditionException(String message) {
+        super(message);
+    }
+
+    public InvalidSearchConditionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,119 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberTeamDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 검색을 전용 executor 에서 실행해서 요청 스레드를 JDBC 대기로 막지 않는다
+ * 각 호출은 실행 스레드에서 자기 readOnly 트랜잭션/커넥션을 쓴다
+ * - 스레드 수는 커넥션 풀 크기에 맞추고 큐가 차면 바로 거절 (커넥션 대기로 쌓이지 않게)
+ * - search.async.virtual-threads=true 이고 JDK 21+ 이면 가상 스레드 사용, 동시 실행은 풀 크기만큼 permit 으로 제한
+ * - 거절되면 RejectedExecutionException (컨트롤러에서 503)
+ * executor 를 빈으로 등록하지 않는 건 스프링 부트 기본 applicationTaskExecutor 를 대체하지 않기 위해서
+ */
+@Slf4j
+@Repository
+public class MemberAsyncRepository {
+
+    private final MemberRepository memberRepository;
+    private final ExecutorService executor;
+    private final Semaphore permits; // 가상 스레드일 때만, 플랫폼 스레드 풀은 스레드 수와 큐로 제한
+
+    public MemberAsyncRepository(MemberRepository memberRepository,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                 @Value("${search.async.queue-capacity:100}") int queueCapacity,
+                                 @Value("${search.async.virtual-threads:false}") boolean virtualThreads) {
+        this.memberRepository = memberRepository;
+        ExecutorService virtualExecutor = virtualThreads ? createVirtualExecutor() : null;
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(poolSize);
+        } else {
+            this.executor = createExecutor(poolSize, queueCapacity);
+            this.permits = null;
+        }
+    }
+
+    public CompletableFuture<List<MemberTeamDto>> search(MemberCond memberCond) {
+        return supplyAsync(() -> memberRepository.search(memberCond));
+    }
+
+    /**
+     * 컨텐츠 쿼리와 카운트 쿼리를 커넥션 2개로 동시에 실행, 지연시간은 합이 아니라 둘 중 큰 쪽
+     * 카운트를 미리 띄우므로 searchPageComplex 처럼 카운트 생략은 하지 않음
+     */
+    public CompletableFuture<Page<MemberTeamDto>> searchPage(MemberCond memberCond, Pageable pageable) {
+        CompletableFuture<List<MemberTeamDto>> content =
+                supplyAsync(() -> memberRepository.searchContent(memberCond, pageable));
+        CompletableFuture<Long> total;
+        try {
+            total = supplyAsync(() -> memberRepository.searchCount(memberCond));
+        } catch (RejectedExecutionException e) {
+            content.cancel(false);
+            throw e;
+        }
+
+        return content.thenCombine(total, (list, count) -> PageableExecutionUtils.getPage(list, pageable, () -> count));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * permit 이 없으면 기다리지 않고 바로 거절
+     */
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        if (permits == null) {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        }
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("member search saturated");
+        }
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier, executor);
+            future.whenComplete((result, e) -> permits.release());
+            return future;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("virtual threads not available, using platform thread pool");
+            return null;
+        }
+    }
+
+    private static ExecutorService createExecutor(int poolSize, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "member-search-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
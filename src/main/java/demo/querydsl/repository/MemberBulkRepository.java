@@ -0,0 +1,155 @@
+package demo.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import demo.querydsl.dto.BulkMutationResult;
+import demo.querydsl.entity.Member;
+import demo.querydsl.event.MemberBulkMutatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static demo.querydsl.entity.QMember.member;
+
+/**
+ * 대용량 벌크 수정/삭제
+ * 대상 id 범위를 chunkSize 로 나눠서 청크마다 짧은 트랜잭션(REQUIRES_NEW)으로 실행
+ * -> 테이블 전체에 오래 락을 잡거나 undo 로그가 커지지 않음
+ * 끝나면 MemberBulkMutatedEvent 를 발행해서 이벤트로 유지되는 읽기 모델(이름 인덱스, 스냅샷, 건수 캐시, team_stats)을 다시 맞추고
+ * (호출자 트랜잭션이 있으면) 영속성 컨텍스트의 해당 Member 를 DB 상태로 맞춘다
+ * predicate 는 member 컬럼만 사용 (벌크 JPQL 은 조인 불가), 같은 행에 쓰기 중인 트랜잭션 안에서 호출하면 락 대기
+ */
+@Slf4j
+@Repository
+public class MemberBulkRepository {
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MemberBulkRepository(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher) {
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.queryFactory = new JPAQueryFactory(entityManager);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * ex) update(member.age.lt(28), clause -> clause.set(member.age, member.age.add(1)), 1000)
+     */
+    public BulkMutationResult update(Predicate predicate, UnaryOperator<JPAUpdateClause> assignments, int chunkSize) {
+        BulkMutationResult result = executeInChunks(predicate, chunkSize, (fromId, toId) ->
+                assignments.apply(queryFactory.update(member))
+                        .where(predicate, member.id.between(fromId, toId))
+                        .execute());
+        syncPersistenceContext(result);
+        return result;
+    }
+
+    public BulkMutationResult delete(Predicate predicate, int chunkSize) {
+        BulkMutationResult result = executeInChunks(predicate, chunkSize, (fromId, toId) ->
+                queryFactory
+                        .delete(member)
+                        .where(predicate, member.id.between(fromId, toId))
+                        .execute());
+        syncPersistenceContext(result);
+        return result;
+    }
+
+    private BulkMutationResult executeInChunks(Predicate predicate, int chunkSize, ChunkMutation mutation) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상: " + chunkSize);
+        }
+
+        NumberExpression<Long> minId = member.id.min();
+        NumberExpression<Long> maxId = member.id.max();
+        Tuple bounds = chunkTransaction.execute(status -> queryFactory
+                .select(minId, maxId)
+                .from(member)
+                .where(predicate)
+                .fetchOne());
+
+        List<Long> affectedPerChunk = new ArrayList<>();
+        if (bounds == null || bounds.get(minId) == null) {
+            return new BulkMutationResult(affectedPerChunk, null, null);
+        }
+
+        long min = bounds.get(minId);
+        long max = bounds.get(maxId);
+        for (long from = min; from <= max; from += chunkSize) {
+            long fromId = from;
+            long toId = Math.min(from + chunkSize - 1, max);
+            Long affected = chunkTransaction.execute(status -> mutation.execute(fromId, toId));
+            affectedPerChunk.add(affected);
+            log.debug("bulk chunk [{}, {}] affected={}", fromId, toId, affected);
+        }
+
+        BulkMutationResult result = new BulkMutationResult(affectedPerChunk, min, max);
+        if (result.getTotal() > 0) {
+            eventPublisher.publishEvent(new MemberBulkMutatedEvent(result));
+        }
+        return result;
+    }
+
+    /**
+     * 호출자 트랜잭션의 영속성 컨텍스트에 남아있는 대상 범위 Member 를
+     * 수정된 건 refresh, 삭제된 건 detach
+     */
+    private void syncPersistenceContext(BulkMutationResult result) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || result.getMinId() == null) {
+            return;
+        }
+
+        List<Member> managed = new ArrayList<>();
+        for (Object entity : entityManager.unwrap(SessionImplementor.class)
+                .getPersistenceContext().getEntitiesByKey().values()) {
+            if (entity instanceof Member && result.contains(((Member) entity).getId())) {
+                managed.add((Member) entity);
+            }
+        }
+        if (managed.isEmpty()) {
+            return;
+        }
+
+        List<Long> managedIds = new ArrayList<>();
+        for (Member each : managed) {
+            managedIds.add(each.getId());
+        }
+        Set<Long> existingIds = new HashSet<>(queryFactory
+                .select(member.id)
+                .from(member)
+                .where(member.id.in(managedIds))
+                .fetch());
+
+        for (Member each : managed) {
+            if (existingIds.contains(each.getId())) {
+                entityManager.refresh(each);
+            } else {
+                entityManager.detach(each);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkMutation {
+        long execute(long fromId, long toId);
+    }
+}
@@ -0,0 +1,41 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberColumns;
+import demo.querydsl.dto.MemberCond;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+/**
+ * 리포트/집계용 대량 조회. ResultSet 에서 바로 MemberColumns 의 primitive 배열을 채운다
+ * JPA 엔티티, Tuple, MemberTeamDto 를 만들지 않음
+ * readOnly 트랜잭션이라 라우팅을 켜면 레플리카에서 조회
+ */
+@Repository
+@Transactional(readOnly = true)
+public class MemberColumnarRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberNameCondition memberNameCondition;
+
+    public MemberColumnarRepository(DataSource dataSource, MemberNameCondition memberNameCondition) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.memberNameCondition = memberNameCondition;
+    }
+
+    public MemberColumns findAgeColumns(MemberCond memberCond) {
+        MemberSqlCondition condition = MemberSqlCondition.of(memberCond, memberNameCondition);
+        String sql = "select m.member_id, m.age, t.name" + condition.from(true) + condition.where();
+
+        MemberColumns columns = new MemberColumns();
+        jdbcTemplate.query(sql, rs -> {
+            columns.add(rs.getLong(1), rs.getInt(2), rs.getString(3));
+        }, condition.args());
+        return columns;
+    }
+}
@@ -0,0 +1,20 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MemberCond 는 변경 가능하므로 캐시/합치기 키는 값만 복사해서 만든다
+ */
+final class MemberCondKey {
+
+    private MemberCondKey() {
+    }
+
+    static List<Object> of(String prefix, MemberCond memberCond) {
+        return Arrays.asList(prefix, memberCond.getMemberName(), memberCond.getTeamName(),
+                memberCond.getAgeGoe(), memberCond.getAgeLoe(), memberCond.getMemberNameMatch());
+    }
+}
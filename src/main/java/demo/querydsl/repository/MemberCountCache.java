@@ -0,0 +1,72 @@
+package demo.querydsl.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import demo.querydsl.event.MemberBulkMutatedEvent;
+import demo.querydsl.event.PostCommitEntityListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * MemberCond 별 전체 건수 캐시 (Caffeine, 최대 MAX_ENTRIES 건, 쓰고 나서 search.count-cache.ttl-millis 지나면 만료)
+ * Member/Team 변경이 커밋되거나 벌크 수정/삭제(MemberBulkMutatedEvent)가 끝나면 전부 무효화
+ * 다른 서버의 쓰기는 TTL 이 지나야 반영된다
+ */
+@Component
+public class MemberCountCache extends PostCommitEntityListener {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Cache<List<Object>, Long> counts;
+
+    public MemberCountCache(EntityManagerFactory entityManagerFactory,
+                            @Value("${search.count-cache.ttl-millis:30000}") long ttlMillis) {
+        super(entityManagerFactory, Member.class, Team.class);
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    /**
+     * @return 캐시된 건수, 없거나 만료되면 null
+     */
+    public Long getIfPresent(MemberCond memberCond) {
+        return counts.getIfPresent(MemberCondKey.of("count", memberCond));
+    }
+
+    public void put(MemberCond memberCond, long count) {
+        counts.put(MemberCondKey.of("count", memberCond), count);
+    }
+
+    @EventListener(MemberBulkMutatedEvent.class)
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidateAll();
+    }
+}
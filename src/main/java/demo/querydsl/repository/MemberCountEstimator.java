@@ -0,0 +1,45 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 전체 건수 추정치
+ * 조건이 없으면 information_schema 의 테이블 통계(table_rows),
+ * 조건이 있으면 같은 조건의 EXPLAIN 에서 rows * filtered 를 곱해서 계산
+ * InnoDB 통계 기반이라 실제와 수십 % 차이날 수 있음
+ */
+@Component
+public class MemberCountEstimator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberNameCondition memberNameCondition;
+
+    public MemberCountEstimator(JdbcTemplate jdbcTemplate, MemberNameCondition memberNameCondition) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberNameCondition = memberNameCondition;
+    }
+
+    public long estimate(MemberCond memberCond) {
+        MemberSqlCondition condition = MemberSqlCondition.of(memberCond, memberNameCondition);
+        if (condition.isEmpty()) {
+            Long rows = jdbcTemplate.queryForObject("select table_rows from information_schema.tables"
+                    + " where table_schema = database() and table_name = 'member'", Long.class);
+            return rows == null ? 0 : rows;
+        }
+
+        String sql = "explain select m.member_id" + condition.from(false) + condition.where();
+
+        double estimate = 1;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(sql, condition.args())) {
+            Object rows = row.get("rows");
+            Object filtered = row.get("filtered");
+            estimate *= rows == null ? 1 : Double.parseDouble(rows.toString());
+            estimate *= filtered == null ? 1 : Double.parseDouble(filtered.toString()) / 100;
+        }
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,99 @@
+package demo.querydsl.repository;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import java.util.List;
+
+import static demo.querydsl.entity.QMember.member;
+import static demo.querydsl.entity.QTeam.team;
+
+/**
+ * member 기준 쿼리에 member.team 조인이 필요한지 판단해서 필요할 때만 붙인다
+ * - where 에서 team 을 참조하면 inner join (조건이 team 을 요구하므로)
+ * - select 에서만 참조하면 left join (팀 없는 회원도 포함)
+ * - 둘 다 아니면 조인 없이 member 테이블만 조회
+ * from 에 team 을 직접 넣으면 세타 조인(카테시안 곱)이 되므로 team 은 항상 이걸로 붙인다
+ */
+public final class MemberJoinPlanner {
+
+    private MemberJoinPlanner() {
+    }
+
+    public static <T> JPAQuery<T> joinTeamIfNeeded(JPAQuery<T> query) {
+        QueryMetadata metadata = query.getMetadata();
+        if (referencesTeam(metadata.getWhere())) {
+            return query.join(member.team, team);
+        }
+        if (referencesTeam(metadata.getProjection())) {
+            return query.leftJoin(member.team, team);
+        }
+        return query;
+    }
+
+    static boolean referencesTeam(Expression<?> expression) {
+        return expression != null && Boolean.TRUE.equals(expression.accept(TeamReferenceVisitor.INSTANCE, null));
+    }
+
+    private enum TeamReferenceVisitor implements Visitor<Boolean, Void> {
+        INSTANCE;
+
+        @Override
+        public Boolean visit(Constant<?> expr, Void context) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(FactoryExpression<?> expr, Void context) {
+            return anyReferencesTeam(expr.getArgs());
+        }
+
+        @Override
+        public Boolean visit(Operation<?> expr, Void context) {
+            return anyReferencesTeam(expr.getArgs());
+        }
+
+        @Override
+        public Boolean visit(ParamExpression<?> expr, Void context) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(Path<?> expr, Void context) {
+            return team.equals(expr.getRoot());
+        }
+
+        @Override
+        public Boolean visit(SubQueryExpression<?> expr, Void context) {
+            return false; // 서브쿼리는 자체 from 을 가짐
+        }
+
+        @Override
+        public Boolean visit(TemplateExpression<?> expr, Void context) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression && referencesTeam((Expression<?>) arg)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean anyReferencesTeam(List<Expression<?>> args) {
+            for (Expression<?> arg : args) {
+                if (referencesTeam(arg)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
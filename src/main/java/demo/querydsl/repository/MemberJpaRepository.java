@@ -1,5 +1,6 @@
 package demo.querydsl.repository;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
@@ -12,32 +13,81 @@ import demo.querydsl.entity.Member;
 import demo.querydsl.entity.QMember;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static demo.querydsl.entity.QMember.*;
 import static demo.querydsl.entity.QMember.member;
 import static demo.querydsl.entity.QTeam.team;
+import static demo.querydsl.repository.MemberJoinPlanner.joinTeamIfNeeded;
 
+/**
+ * 조회 메소드는 readOnly 트랜잭션 (FlushMode.MANUAL, 스냅샷 없음)
+ * 쓰기 메소드만 @Transactional 로 따로 연다
+ */
 @Repository
+@Transactional(readOnly = true)
 public class MemberJpaRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int BATCH_SIZE = 100; // hibernate.jdbc.batch_size 와 맞춤
+
     private final EntityManager entityManager;
     private final JPAQueryFactory queryFactory;
+    private final MemberNameCondition memberNameCondition;
 
-    public MemberJpaRepository(EntityManager entityManager) {
+    public MemberJpaRepository(EntityManager entityManager, MemberNameCondition memberNameCondition) {
         this.entityManager = entityManager;
         this.queryFactory = new JPAQueryFactory(entityManager);
+        this.memberNameCondition = memberNameCondition;
     }
 
+    @Transactional
     public void save(Member member) {
         entityManager.persist(member);
     }
 
+    /**
+     * 대량 저장. BATCH_SIZE 마다 flush 해서 insert 를 JDBC batch 로 보내고
+     * 방금 저장한 회원만 detach 해서 영속성 컨텍스트가 계속 커지지 않게 한다
+     * 호출한 쪽이 이미 관리하던 엔티티(팀 등)는 그대로 영속 상태로 남는다
+     * @param members
+     * @return 저장 건수
+     */
+    @Transactional
+    public long saveAll(Iterable<Member> members) {
+        long count = 0;
+        List<Member> batch = new ArrayList<>(BATCH_SIZE);
+        for (Member member : members) {
+            entityManager.persist(member);
+            batch.add(member);
+            count++;
+            if (batch.size() == BATCH_SIZE) {
+                flushAndDetach(batch);
+            }
+        }
+        flushAndDetach(batch);
+        return count;
+    }
+
+    private void flushAndDetach(List<Member> batch) {
+        entityManager.flush();
+        batch.forEach(entityManager::detach);
+        batch.clear();
+    }
+
     public Optional<Member> findById(Long id) {
         Member findmember = entityManager.find(Member.class, id);
         return Optional.ofNullable(findmember);
@@ -46,12 +96,14 @@ public class MemberJpaRepository {
     public List<Member> findAll() {
         return entityManager.createQuery("" +
                         "select m from Member m")
+                .setHint(QueryHints.READ_ONLY, true)
                 .getResultList();
     }
 
     public List<Member> findAll_Querydsl() {
         return queryFactory
                 .selectFrom(member)
+                .setHint(QueryHints.READ_ONLY, true)
                 .fetch();
     }
 
@@ -59,6 +111,7 @@ public class MemberJpaRepository {
         return entityManager.createQuery("" +
                 "select m from Member m where m.name = :name")
                 .setParameter("name", name)
+                .setHint(QueryHints.READ_ONLY, true)
                 .getResultList();
     }
 
@@ -66,9 +119,35 @@ public class MemberJpaRepository {
         return queryFactory
                 .selectFrom(member)
                 .where(member.name.eq(name))
+                .setHint(QueryHints.READ_ONLY, true)
                 .fetch();
     }
 
+    /**
+     * 전체 회원 대량 스캔. StatelessSession 으로 영속성 컨텍스트, 1차 캐시, 더티체킹을 모두 건너뛴다
+     * 넘겨받은 Member 는 준영속이라 지연로딩(member.getTeam() 내부 접근) 불가
+     * @param consumer
+     */
+    public void scanAllStateless(Consumer<Member> consumer) {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            ScrollableResults results = session.createQuery("select m from Member m", Member.class)
+                    .setFetchSize(STREAM_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    consumer.accept((Member) results.get(0));
+                }
+            } finally {
+                results.close();
+            }
+        } finally {
+            session.close();
+        }
+    }
+
     /**
      * 불린빌더 사용
      * @param memberCond
@@ -77,9 +156,7 @@ public class MemberJpaRepository {
     public List<MemberTeamDto> searchByBuilder(MemberCond memberCond) {
 
         BooleanBuilder booleanBuilder = new BooleanBuilder();
-        if (StringUtils.hasText(memberCond.getMemberName())) {
-            booleanBuilder.and(member.name.eq(memberCond.getMemberName()));
-        }
+        booleanBuilder.and(memberNameCondition.predicate(memberCond));
         if (StringUtils.hasText(memberCond.getTeamName())) {
             booleanBuilder.and(team.name.eq(memberCond.getTeamName()));
         }
@@ -107,11 +184,12 @@ public class MemberJpaRepository {
 
     /**
      * where 절에 메소드 삽입. 메소드 재사용이 가능해서 이게 더 좋다
+     * 결과는 member.id 순 (메모리 스냅샷과 같은 순서)
      * @param memberCond
      * @return
      */
     public List<MemberTeamDto> searchByWhereParam(MemberCond memberCond) {
-        return queryFactory
+        return joinTeamIfNeeded(queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.name.as("memberName"),
@@ -120,17 +198,43 @@ public class MemberJpaRepository {
                         team.name.as("teamName")
                 ))
                 .from(member)
-                .where(memberNameEq(memberCond.getMemberName()),
+                .where(memberNameCondition.predicate(memberCond),
                         teamNameEq(memberCond.getTeamName()),
                         ageGoe(memberCond.getAgeGoe()),
                         ageLoe(memberCond.getAgeLoe())
-                )
+                ))
+                .orderBy(member.id.asc())
                 .fetch();
 
     }
 
-    private BooleanExpression memberNameEq(String memberName) {
-        return StringUtils.hasText(memberName) ? member.name.eq(memberName) :null ;
+    /**
+     * 스트리밍 조회. 전체 결과를 List 로 만들지 않고 forward-only 커서로 한 건씩 넘긴다
+     * DTO 프로젝션이라 영속성 컨텍스트에 쌓이지 않음, 커서가 열려있는 동안 트랜잭션 유지
+     * @param memberCond
+     * @param consumer
+     */
+    public void streamByWhereParam(MemberCond memberCond, Consumer<MemberTeamDto> consumer) {
+        try (CloseableIterator<MemberTeamDto> iterator = joinTeamIfNeeded(queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("memberName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        teamNameEq(memberCond.getTeamName()),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe())
+                ))
+                .setHint(QueryHints.FETCH_SIZE, STREAM_FETCH_SIZE)
+                .iterate()) {
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+            }
+        }
     }
 
     private BooleanExpression teamNameEq(String teamName) {
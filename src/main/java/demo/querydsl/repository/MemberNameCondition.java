@@ -0,0 +1,75 @@
+package demo.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.search.MemberNameIndex;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+import static demo.querydsl.entity.QMember.member;
+
+/**
+ * MemberCond 의 회원 이름 조건을 memberNameMatch 에 맞게 만든다 (모든 검색 경로 공용)
+ * PREFIX/CONTAINS 는 이름 인덱스에서 찾은 회원 id 로 범위를 좁히고 like 조건으로 이름을 다시 확인 (id IN (...) and name like ...)
+ * -> 인덱스가 늦게 반영돼도 이름이 다른 회원은 결과에 들어가지 않는다
+ * 제약
+ * - 인덱스는 커밋 이벤트로만 갱신되므로, 아직 반영되지 않은 회원은 찾지 못한다
+ * - 3글자 미만 CONTAINS 는 인덱스가 전체 이름을 훑는다 (MemberNameNgramIndex)
+ * - 인덱스가 아직 없거나 id 가 MAX_IDS 를 넘으면 like 조건만 사용 (CONTAINS 는 '%x%' 라 테이블 스캔)
+ */
+@Component
+public class MemberNameCondition {
+
+    static final int MAX_IDS = 1000; // IN 목록 최대 크기
+
+    private final MemberNameIndex memberNameIndex;
+
+    public MemberNameCondition(MemberNameIndex memberNameIndex) {
+        this.memberNameIndex = memberNameIndex;
+    }
+
+    public static boolean isExact(MemberCond memberCond) {
+        MemberNameMatch match = memberCond.getMemberNameMatch();
+        return match == null || match == MemberNameMatch.EXACT;
+    }
+
+    public BooleanExpression predicate(MemberCond memberCond) {
+        String memberName = memberCond.getMemberName();
+        if (!StringUtils.hasText(memberName)) {
+            return null;
+        }
+        if (isExact(memberCond)) {
+            return member.name.eq(memberName);
+        }
+        BooleanExpression like = memberCond.getMemberNameMatch() == MemberNameMatch.PREFIX
+                ? member.name.startsWith(memberName)
+                : member.name.contains(memberName);
+        List<Long> ids = resolveIds(memberCond);
+        return ids == null ? like : member.id.in(ids).and(like);
+    }
+
+    /**
+     * SQL 을 직접 만드는 경로용, 결과는 좁히기용이므로 like 조건과 같이 사용
+     * @return PREFIX/CONTAINS 에 일치하는 회원 id, 인덱스로 풀 수 없으면 null (like 만 사용)
+     */
+    public List<Long> resolveIds(MemberCond memberCond) {
+        if (!memberNameIndex.isReady()) {
+            return null;
+        }
+        return memberNameIndex.findIds(memberCond.getMemberName(), memberCond.getMemberNameMatch(), MAX_IDS);
+    }
+
+    /**
+     * like 패턴, '!' 를 escape 문자로 사용
+     */
+    public static String likePattern(MemberCond memberCond) {
+        String escaped = memberCond.getMemberName()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return memberCond.getMemberNameMatch() == MemberNameMatch.PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
+}
@@ -2,14 +2,24 @@ package demo.querydsl.repository;
 
 
 import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberCountStrategy;
+import demo.querydsl.dto.MemberKeysetSlice;
+import demo.querydsl.dto.MemberPage;
 import demo.querydsl.dto.MemberTeamDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<MemberTeamDto> search(MemberCond memberCond);
+    List<MemberTeamDto> searchCacheable(MemberCond memberCond);
     Page<MemberTeamDto> searchPageSimple(MemberCond memberCond, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberCond memberCond, Pageable pageable);
+    MemberPage searchPage(MemberCond memberCond, Pageable pageable, MemberCountStrategy countStrategy);
+    List<MemberTeamDto> searchContent(MemberCond memberCond, Pageable pageable);
+    long searchCount(MemberCond memberCond);
+    MemberKeysetSlice searchKeyset(MemberCond memberCond, String cursor, int size);
+    Page<MemberTeamDto> searchTeamsFanOut(MemberCond memberCond, Collection<String> teamNames, Pageable pageable);
 }
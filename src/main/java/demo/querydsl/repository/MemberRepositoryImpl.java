@@ -1,33 +1,84 @@
 package demo.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberCountStrategy;
+import demo.querydsl.dto.MemberKeysetCursor;
+import demo.querydsl.dto.MemberKeysetSlice;
+import demo.querydsl.dto.MemberPage;
 import demo.querydsl.dto.MemberTeamDto;
 import demo.querydsl.dto.QMemberTeamDto;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static demo.querydsl.entity.QMember.member;
 import static demo.querydsl.entity.QTeam.team;
+import static demo.querydsl.repository.MemberJoinPlanner.joinTeamIfNeeded;
 
+@Transactional(readOnly = true)
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    private static final String SEARCH_CACHE_REGION = "memberSearch";
+
+    private static final int FAN_OUT_QUEUE_CAPACITY = 100;
+
+    static final int MAX_KEYSET_SIZE = 100;
+
     private final JPAQueryFactory queryFactory;
+    private final MemberNameCondition memberNameCondition;
+    private final MemberCountCache memberCountCache;
+    private final MemberCountEstimator memberCountEstimator;
+    private final TransactionTemplate partitionTransaction;
+    private final ExecutorService fanOutExecutor;
 
-    public MemberRepositoryImpl(EntityManager entityManager) {
+    public MemberRepositoryImpl(EntityManager entityManager,
+                                MemberNameCondition memberNameCondition,
+                                MemberCountCache memberCountCache,
+                                MemberCountEstimator memberCountEstimator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${search.fan-out.parallelism:4}") int parallelism) {
         this.queryFactory = new JPAQueryFactory(entityManager);
+        this.memberNameCondition = memberNameCondition;
+        this.memberCountCache = memberCountCache;
+        this.memberCountEstimator = memberCountEstimator;
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setReadOnly(true);
+        this.fanOutExecutor = createFanOutExecutor(parallelism);
     }
 
     @Override
     public List<MemberTeamDto> search(MemberCond memberCond) {
-        return queryFactory
+        return joinTeamIfNeeded(queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.name.as("memberName"),
@@ -36,18 +87,46 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
                         team.name.as("teamName")
                 ))
                 .from(member)
-                .where(memberNameEq(memberCond.getMemberName()),
+                .where(memberNameCondition.predicate(memberCond),
                         teamNameEq(memberCond.getTeamName()),
                         ageGoe(memberCond.getAgeGoe()),
                         ageLoe(memberCond.getAgeLoe())
-                )
+                ))
                 .fetch();
 
     }
 
+    /**
+     * search 와 같은 쿼리, 결과를 hibernate 쿼리 캐시(memberSearch region)에 보관
+     * 캐시 키는 SQL + 바인딩 값(MemberCond), member/team 테이블에 쓰기가 flush 되면 자동 무효화
+     */
+    @Override
+    public List<MemberTeamDto> searchCacheable(MemberCond memberCond) {
+        return joinTeamIfNeeded(queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("memberName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        teamNameEq(memberCond.getTeamName()),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe())
+                ))
+                .setHint(QueryHints.CACHEABLE, true)
+                .setHint(QueryHints.CACHE_REGION, SEARCH_CACHE_REGION)
+                .fetch();
+    }
+
+    /**
+     * pageable 의 Sort 를 인덱스 있는 컬럼만 허용해서 DB 에서 정렬 (MemberTeamSort), 마지막은 항상 member.id
+     */
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberCond memberCond, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
+        QueryResults<MemberTeamDto> results = joinTeamIfNeeded(queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.name.as("memberName"),
@@ -56,11 +135,12 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
                         team.name.as("teamName")
                 ))
                 .from(member)
-                .where(memberNameEq(memberCond.getMemberName()),
+                .where(memberNameCondition.predicate(memberCond),
                         teamNameEq(memberCond.getTeamName()),
                         ageGoe(memberCond.getAgeGoe()),
                         ageLoe(memberCond.getAgeLoe())
-                )
+                ))
+                .orderBy(MemberTeamSort.orderBy(pageable.getSort()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetchResults();
@@ -71,13 +151,300 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
         return new PageImpl <>(content, pageable, total);
     }
 
+    /**
+     * 컨텐츠 쿼리와 카운트 쿼리 분리
+     * 카운트 쿼리는 team 조건이 있을 때만 조인하고,
+     * 첫 페이지/마지막 페이지가 pageSize 보다 작으면 카운트 쿼리 생략
+     */
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberCond memberCond, Pageable pageable) {
-        return null;
+        List<MemberTeamDto> content = searchContent(memberCond, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> searchCount(memberCond));
+    }
+
+    /**
+     * 전체 건수를 countStrategy 로 계산 (EXACT / CACHED / APPROXIMATE)
+     * 첫 페이지나 마지막 페이지처럼 컨텐츠만으로 건수를 알 수 있으면 전략과 상관없이 count 생략
+     * 캐시 적중이나 추정치는 totalExact = false, 추정치가 현재 페이지보다 작으면 현재 페이지까지로 맞춘다
+     */
+    @Override
+    public MemberPage searchPage(MemberCond memberCond, Pageable pageable, MemberCountStrategy countStrategy) {
+        List<MemberTeamDto> content = searchContent(memberCond, pageable);
+        long loaded = pageable.getOffset() + content.size();
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return new MemberPage(content, pageable, loaded, true);
+        }
+
+        switch (countStrategy) {
+            case CACHED:
+                Long cached = memberCountCache.getIfPresent(memberCond);
+                if (cached != null) {
+                    return new MemberPage(content, pageable, Math.max(cached, loaded), false);
+                }
+                long total = searchCount(memberCond);
+                memberCountCache.put(memberCond, total);
+                return new MemberPage(content, pageable, total, true);
+            case APPROXIMATE:
+                // 꽉 찬 페이지면 다음 페이지가 있다고 보고 한 건 더 잡는다
+                long floor = content.isEmpty() ? loaded : loaded + 1;
+                return new MemberPage(content, pageable, Math.max(memberCountEstimator.estimate(memberCond), floor), false);
+            default:
+                return new MemberPage(content, pageable, searchCount(memberCond), true);
+        }
+    }
+
+    @Override
+    public List<MemberTeamDto> searchContent(MemberCond memberCond, Pageable pageable) {
+        return joinTeamIfNeeded(queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("memberName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        teamNameEq(memberCond.getTeamName()),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe())
+                ))
+                .orderBy(MemberTeamSort.orderBy(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Override
+    public long searchCount(MemberCond memberCond) {
+        return joinTeamIfNeeded(queryFactory
+                .select(member.count())
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        teamNameEq(memberCond.getTeamName()),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe())
+                ))
+                .fetchOne();
+    }
+
+    /**
+     * 키셋(커서) 페이징
+     * offset 대신 마지막으로 읽은 (age, memberId) 이후만 조회해서 뒤 페이지도 첫 페이지와 비용이 같다
+     * size + 1 건을 읽어서 다음 페이지 유무 판단
+     * size 는 1~MAX_KEYSET_SIZE, 범위를 벗어나거나 커서를 해석할 수 없으면 InvalidSearchConditionException
+     */
+    @Override
+    public MemberKeysetSlice searchKeyset(MemberCond memberCond, String cursor, int size) {
+        if (size < 1 || size > MAX_KEYSET_SIZE) {
+            throw new InvalidSearchConditionException("size 는 1~" + MAX_KEYSET_SIZE + ": " + size);
+        }
+        MemberKeysetCursor after = StringUtils.hasText(cursor) ? decodeCursor(cursor) : null;
+
+        List<MemberTeamDto> content = joinTeamIfNeeded(queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("memberName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        teamNameEq(memberCond.getTeamName()),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe()),
+                        keysetAfter(after)
+                ))
+                .orderBy(member.age.asc(), member.id.asc())
+                .limit(size + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+
+        return new MemberKeysetSlice(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * 여러 팀 검색을 팀별 파티션으로 나눠 search.fan-out.parallelism 크기 풀에서 동시에 실행
+     * 파티션마다 자기 readOnly 트랜잭션(커넥션)을 쓰고 정렬된 상위 offset + pageSize 건만 읽는다
+     * 숫자 컬럼 정렬이면 같은 정렬로 k-way 병합하고 페이지가 차면 멈춘다
+     * 문자열 컬럼 정렬이면 자바 비교가 DB 콜레이션과 다를 수 있으므로 파티션 상위 건의 id 만 모아 DB 에서 한 번 더 정렬
+     * 빈 팀 이름은 버리고 중복은 합친다, 남는 팀이 없으면 InvalidSearchConditionException. memberCond 의 teamName 은 무시
+     * 호출 스레드는 파티션을 기다리는 동안 커넥션을 잡고 있지 않도록 트랜잭션 없이 실행
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<MemberTeamDto> searchTeamsFanOut(MemberCond memberCond, Collection<String> teamNames, Pageable pageable) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String teamName : teamNames) {
+            if (StringUtils.hasText(teamName)) {
+                names.add(teamName.trim());
+            }
+        }
+        if (names.isEmpty()) {
+            throw new InvalidSearchConditionException("teamNames 가 비어 있음");
+        }
+
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        OrderSpecifier<?>[] orderBy = MemberTeamSort.orderBy(pageable.getSort());
+
+        List<CompletableFuture<List<MemberTeamDto>>> partitions = new ArrayList<>();
+        for (String teamName : names) {
+            partitions.add(CompletableFuture.supplyAsync(() -> partitionTransaction.execute(
+                    status -> searchPartition(memberCond, teamName, orderBy, limit)), fanOutExecutor));
+        }
+
+        List<List<MemberTeamDto>> sorted = joinAll(partitions);
+        List<MemberTeamDto> content = MemberTeamSort.collationDependent(pageable.getSort())
+                ? partitionTransaction.execute(status -> rerank(sorted, orderBy, pageable))
+                : merge(sorted, MemberTeamSort.comparator(pageable.getSort()), pageable);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> partitionTransaction.execute(status -> searchTeamsCount(memberCond, names)));
+    }
+
+    private List<MemberTeamDto> searchPartition(MemberCond memberCond, String teamName, OrderSpecifier<?>[] orderBy, long limit) {
+        return joinTeamIfNeeded(queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("memberName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        team.name.eq(teamName),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe())
+                ))
+                .orderBy(orderBy)
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 전체 상위 offset + pageSize 건은 반드시 어느 파티션의 상위 offset + pageSize 건 안에 있으므로
+     * 그 id 들만 같은 정렬로 다시 조회해서 DB 콜레이션 순서를 그대로 쓴다
+     */
+    private List<MemberTeamDto> rerank(List<List<MemberTeamDto>> partitions, OrderSpecifier<?>[] orderBy, Pageable pageable) {
+        List<Long> ids = new ArrayList<>();
+        partitions.forEach(partition -> partition.forEach(dto -> ids.add(dto.getMemberId())));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("memberName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .join(member.team, team)
+                .where(member.id.in(ids))
+                .orderBy(orderBy)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    private long searchTeamsCount(MemberCond memberCond, Collection<String> teamNames) {
+        return joinTeamIfNeeded(queryFactory
+                .select(member.count())
+                .from(member)
+                .where(memberNameCondition.predicate(memberCond),
+                        team.name.in(teamNames),
+                        ageGoe(memberCond.getAgeGoe()),
+                        ageLoe(memberCond.getAgeLoe())
+                ))
+                .fetchOne();
+    }
+
+    /**
+     * 파티션별 정렬된 결과를 힙으로 병합, offset 만큼 건너뛰고 pageSize 가 차면 중단
+     */
+    private static List<MemberTeamDto> merge(List<List<MemberTeamDto>> partitions,
+                                             Comparator<MemberTeamDto> comparator,
+                                             Pageable pageable) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, partitions.size()),
+                (a, b) -> comparator.compare(partitions.get(a[0]).get(a[1]), partitions.get(b[0]).get(b[1])));
+        for (int i = 0; i < partitions.size(); i++) {
+            if (!partitions.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<MemberTeamDto> content = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        while (!heads.isEmpty() && content.size() < pageable.getPageSize()) {
+            int[] head = heads.poll();
+            List<MemberTeamDto> partition = partitions.get(head[0]);
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(partition.get(head[1]));
+            }
+            if (head[1] + 1 < partition.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 하나라도 실패하면 아직 시작 안 한 파티션은 취소하고 원래 예외를 던진다
+     */
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 큐가 차면 호출 스레드에서 직접 실행 (호출 스레드는 트랜잭션 밖이라 커넥션을 하나 더 쓰는 것뿐)
+     */
+    private static ExecutorService createFanOutExecutor(int parallelism) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(FAN_OUT_QUEUE_CAPACITY),
+                runnable -> new Thread(runnable, "member-fan-out-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+
+    private static MemberKeysetCursor decodeCursor(String cursor) {
+        try {
+            return MemberKeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchConditionException(e.getMessage(), e);
+        }
     }
 
-    private BooleanExpression memberNameEq(String memberName) {
-        return StringUtils.hasText(memberName) ? member.name.eq(memberName) :null ;
+    private BooleanExpression keysetAfter(MemberKeysetCursor after) {
+        if (after == null) {
+            return null;
+        }
+        return member.age.gt(after.getAge())
+                .or(member.age.eq(after.getAge()).and(member.id.gt(after.getMemberId())));
     }
 
     private BooleanExpression teamNameEq(String teamName) {
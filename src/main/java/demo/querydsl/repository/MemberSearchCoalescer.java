@@ -0,0 +1,39 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberTeamDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 같은 MemberCond 로 동시에 들어온 검색을 쿼리 하나로 합친다 (search.coalesce.ttl-millis 로 짧게 재사용 가능)
+ * 반환 리스트는 여러 요청이 공유하므로 수정 불가로 감싸서 준다
+ */
+@Component
+public class MemberSearchCoalescer {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final SingleFlight<List<Object>, List<MemberTeamDto>> singleFlight;
+
+    public MemberSearchCoalescer(MemberJpaRepository memberJpaRepository,
+                                 MemberRepository memberRepository,
+                                 @Value("${search.coalesce.ttl-millis:0}") long ttlMillis) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.memberRepository = memberRepository;
+        this.singleFlight = new SingleFlight<>(ttlMillis);
+    }
+
+    public List<MemberTeamDto> searchByWhereParam(MemberCond memberCond) {
+        return singleFlight.execute(MemberCondKey.of("searchByWhereParam", memberCond),
+                () -> Collections.unmodifiableList(memberJpaRepository.searchByWhereParam(memberCond)));
+    }
+
+    public List<MemberTeamDto> search(MemberCond memberCond) {
+        return singleFlight.execute(MemberCondKey.of("search", memberCond),
+                () -> Collections.unmodifiableList(memberRepository.search(memberCond)));
+    }
+}
@@ -0,0 +1,93 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MemberCond 를 JdbcTemplate 용 네이티브 SQL 의 from/where 와 바인딩 값으로 변환 (SQL 을 직접 만드는 경로 공용)
+ * 조인은 MemberJoinPlanner 와 같은 규칙
+ * - 팀 이름 조건이 있으면 inner join
+ * - select 에서만 team 컬럼을 쓰면 left join
+ * - 둘 다 아니면 member 테이블만
+ */
+public class MemberSqlCondition {
+
+    private static final String MEMBER = " from member m";
+    private static final String JOIN_TEAM = " from member m join team t on m.team_id = t.team_id";
+    private static final String LEFT_JOIN_TEAM = " from member m left join team t on m.team_id = t.team_id";
+
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> args = new ArrayList<>();
+    private final boolean teamCondition;
+
+    private MemberSqlCondition(MemberCond memberCond, MemberNameCondition memberNameCondition) {
+        if (StringUtils.hasText(memberCond.getMemberName())) {
+            addMemberNameCondition(memberCond, memberNameCondition);
+        }
+        teamCondition = StringUtils.hasText(memberCond.getTeamName());
+        if (teamCondition) {
+            conditions.add("t.name = ?");
+            args.add(memberCond.getTeamName());
+        }
+        if (memberCond.getAgeGoe() != null) {
+            conditions.add("m.age >= ?");
+            args.add(memberCond.getAgeGoe());
+        }
+        if (memberCond.getAgeLoe() != null) {
+            conditions.add("m.age <= ?");
+            args.add(memberCond.getAgeLoe());
+        }
+    }
+
+    public static MemberSqlCondition of(MemberCond memberCond, MemberNameCondition memberNameCondition) {
+        return new MemberSqlCondition(memberCond, memberNameCondition);
+    }
+
+    /**
+     * @param selectTeam select 절에서 team 컬럼을 쓰는지
+     */
+    public String from(boolean selectTeam) {
+        if (teamCondition) {
+            return JOIN_TEAM;
+        }
+        return selectTeam ? LEFT_JOIN_TEAM : MEMBER;
+    }
+
+    public String where() {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    public Object[] args() {
+        return args.toArray();
+    }
+
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * PREFIX/CONTAINS 는 이름 인덱스의 회원 id 로 좁힌 뒤 like 로 다시 확인, 인덱스로 풀 수 없으면 like 만
+     */
+    private void addMemberNameCondition(MemberCond memberCond, MemberNameCondition memberNameCondition) {
+        if (MemberNameCondition.isExact(memberCond)) {
+            conditions.add("m.name = ?");
+            args.add(memberCond.getMemberName());
+            return;
+        }
+        List<Long> ids = memberNameCondition.resolveIds(memberCond);
+        if (ids != null && ids.isEmpty()) {
+            conditions.add("1 = 0");
+            return;
+        }
+        if (ids != null) {
+            conditions.add("m.member_id in (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")");
+            args.addAll(ids);
+        }
+        conditions.add("m.name like ? escape '!'");
+        args.add(MemberNameCondition.likePattern(memberCond));
+    }
+}
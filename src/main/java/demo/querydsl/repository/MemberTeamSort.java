@@ -0,0 +1,113 @@
+package demo.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import demo.querydsl.dto.MemberTeamDto;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static demo.querydsl.entity.QMember.member;
+import static demo.querydsl.entity.QTeam.team;
+
+/**
+ * MemberTeamDto 필드 기준 Sort 를 SQL 정렬(OrderSpecifier)로 변환, 숫자 컬럼만이면 같은 순서의 메모리 Comparator 도 만든다
+ * 인덱스가 있는 컬럼만 허용, 그 외 속성은 InvalidSearchConditionException (컨트롤러에서 400)
+ * null 이 올 수 있는 컬럼만 nullsLast, NOT NULL 컬럼은 그대로 정렬해서 인덱스 정렬/top-N 을 쓸 수 있게 한다
+ * 페이지가 흔들리지 않게 마지막에 항상 memberId 오름차순을 붙인다
+ * 문자열 순서는 DB 콜레이션이 정하고 자바 비교와 같다는 보장이 없으므로 문자열 컬럼은 Comparator 를 만들지 않는다
+ */
+class MemberTeamSort {
+
+    private static final Map<String, Column<?>> COLUMNS = new HashMap<>();
+
+    static {
+        // PK
+        COLUMNS.put("memberId", new Column<>(member.id, MemberTeamDto::getMemberId, Comparator.<Long>naturalOrder(), false));
+        // idx_member_name_age
+        COLUMNS.put("memberName", new Column<>(member.name, MemberTeamDto::getMemberName, null, true));
+        // idx_member_age
+        COLUMNS.put("age", new Column<>(member.age, MemberTeamDto::getAge, Comparator.<Integer>naturalOrder(), false));
+        // idx_member_team_age, 팀 없는 회원은 null
+        COLUMNS.put("teamId", new Column<>(team.id, MemberTeamDto::getTeamId, Comparator.<Long>naturalOrder(), true));
+        // idx_team_name
+        COLUMNS.put("teamName", new Column<>(team.name, MemberTeamDto::getTeamName, null, true));
+    }
+
+    private MemberTeamSort() {
+    }
+
+    static OrderSpecifier<?>[] orderBy(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(column(order.getProperty()).orderBy(order));
+        }
+        orders.add(member.id.asc());
+        return orders.toArray(new OrderSpecifier<?>[0]);
+    }
+
+    /**
+     * 문자열 컬럼이 있으면 true, 이때는 comparator 대신 DB 에서 정렬해야 한다
+     */
+    static boolean collationDependent(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (column(order.getProperty()).order == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @throws IllegalStateException 문자열 컬럼이 있으면 (collationDependent 먼저 확인)
+     */
+    static Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDto> next = column(order.getProperty()).comparator(order);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<MemberTeamDto> byId = Comparator.comparing(MemberTeamDto::getMemberId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static Column<?> column(String property) {
+        Column<?> column = COLUMNS.get(property);
+        if (column == null) {
+            throw new InvalidSearchConditionException("unsupported sort property: " + property);
+        }
+        return column;
+    }
+
+    private static class Column<T extends Comparable<?>> {
+        final ComparableExpressionBase<T> path;
+        final Function<MemberTeamDto, T> getter;
+        final Comparator<T> order; // null 이면 DB 정렬만 (문자열)
+        final boolean nullable;
+
+        Column(ComparableExpressionBase<T> path, Function<MemberTeamDto, T> getter, Comparator<T> order, boolean nullable) {
+            this.path = path;
+            this.getter = getter;
+            this.order = order;
+            this.nullable = nullable;
+        }
+
+        OrderSpecifier<T> orderBy(Sort.Order order) {
+            OrderSpecifier<T> orderSpecifier = order.isAscending() ? path.asc() : path.desc();
+            return nullable ? orderSpecifier.nullsLast() : orderSpecifier;
+        }
+
+        Comparator<MemberTeamDto> comparator(Sort.Order order) {
+            if (this.order == null) {
+                throw new IllegalStateException("collation dependent sort: " + order.getProperty());
+            }
+            Comparator<T> direction = order.isAscending() ? this.order : this.order.reversed();
+            return Comparator.comparing(getter, Comparator.nullsLast(direction));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package demo.querydsl.repository;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 요청은 먼저 온 요청의 실행 결과를 같이 받는다 (실행은 한 번)
+ * ttlMillis > 0 이면 끝난 결과를 그 시간 동안만 재사용
+ * 결과 객체를 여러 호출자가 공유하므로 호출자는 결과를 수정하면 안된다
+ */
+public class SingleFlight<K, V> {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Recent<V>> recent = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public SingleFlight(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (ttlNanos > 0) {
+            Recent<V> cached = recent.get(key);
+            if (cached != null && cached.expiresAt - System.nanoTime() > 0) {
+                return cached.value;
+            }
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            V value = loader.get();
+            if (ttlNanos > 0) {
+                remember(key, value);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void remember(K key, V value) {
+        long now = System.nanoTime();
+        if (recent.size() >= PURGE_THRESHOLD) {
+            recent.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        }
+        recent.put(key, new Recent<>(value, now + ttlNanos));
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static class Recent<V> {
+        final V value;
+        final long expiresAt;
+
+        Recent(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package demo.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import demo.querydsl.dto.MemberDto;
+import demo.querydsl.dto.QMemberDto;
+import demo.querydsl.dto.TeamMembersDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static demo.querydsl.entity.QMember.member;
+import static demo.querydsl.entity.QTeam.team;
+import static java.util.stream.Collectors.toList;
+
+@Repository
+@Transactional(readOnly = true)
+public class TeamJpaRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamJpaRepository(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    /**
+     * 팀 + 소속 회원. 팀 수와 상관없이 쿼리 2번
+     * 1. 팀 페이지 조회
+     * 2. 해당 팀 id IN 절로 회원 조회 후 메모리에서 팀별로 묶음 (GroupBy)
+     * @param pageable
+     * @return
+     */
+    public List<TeamMembersDto> findTeamsWithMembers(Pageable pageable) {
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        if (teams.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> teamIds = teams.stream()
+                .map(tuple -> tuple.get(team.id))
+                .collect(toList());
+
+        Map<Long, List<MemberDto>> membersByTeamId = queryFactory
+                .from(member)
+                .where(member.team.id.in(teamIds))
+                .orderBy(member.id.asc())
+                .transform(groupBy(member.team.id).as(list(new QMemberDto(member.name, member.age))));
+
+        List<TeamMembersDto> result = new ArrayList<>(teams.size());
+        for (Tuple tuple : teams) {
+            Long teamId = tuple.get(team.id);
+            result.add(new TeamMembersDto(teamId, tuple.get(team.name),
+                    membersByTeamId.getOrDefault(teamId, Collections.emptyList())));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.TeamNameStatsDto;
+import demo.querydsl.entity.TeamStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TeamStatsRepository extends JpaRepository<TeamStats, Long> {
+
+    /**
+     * 팀 이름은 unique 가 아니므로 같은 이름의 팀 행을 합쳐서 한 건으로 (idx_team_stats_team_name)
+     */
+    @Query("select new demo.querydsl.dto.TeamNameStatsDto(s.teamName, count(s), sum(s.memberCount), sum(s.ageSum), min(s.ageMin), max(s.ageMax))"
+            + " from TeamStats s where s.teamName = :teamName group by s.teamName")
+    Optional<TeamNameStatsDto> findStatsByTeamName(@Param("teamName") String teamName);
+}
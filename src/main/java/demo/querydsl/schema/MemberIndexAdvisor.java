@@ -0,0 +1,115 @@
+package demo.querydsl.schema;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.repository.MemberNameCondition;
+import demo.querydsl.repository.MemberSqlCondition;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MemberRepositoryImpl.search 의 조건 조합(16가지)별로 EXPLAIN 을 돌려서
+ * 인덱스를 못 타고 풀스캔(type = ALL)하는 경우를 보고한다
+ * SQL 은 MemberSqlCondition 으로 만들어서 실제 조회와 조인 방식이 같다 (팀 이름 조건이 있으면 inner join)
+ * 데이터가 거의 없으면 옵티마이저가 풀스캔을 고를 수 있으니 운영 규모 데이터에서 돌릴 것
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "repository.index-advisor.enabled", havingValue = "true")
+public class MemberIndexAdvisor {
+
+    private static final String[] CONDITION_NAMES = {"memberName", "teamName", "ageGoe", "ageLoe"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberNameCondition memberNameCondition;
+
+    public MemberIndexAdvisor(JdbcTemplate jdbcTemplate, MemberNameCondition memberNameCondition) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberNameCondition = memberNameCondition;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        for (IndexAdvice advice : analyze()) {
+            if (advice.isFullScan()) {
+                log.warn("full scan {}", advice);
+            } else {
+                log.info("index ok {}", advice);
+            }
+        }
+    }
+
+    public List<IndexAdvice> analyze() {
+        List<IndexAdvice> result = new ArrayList<>();
+        for (int shape = 0; shape < 1 << CONDITION_NAMES.length; shape++) {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < CONDITION_NAMES.length; i++) {
+                if ((shape & 1 << i) != 0) {
+                    names.add(CONDITION_NAMES[i]);
+                }
+            }
+
+            MemberSqlCondition condition = MemberSqlCondition.of(sampleCond(shape), memberNameCondition);
+            String sql = "explain select m.member_id, m.name, m.age, t.team_id, t.name"
+                    + condition.from(true) + condition.where();
+
+            for (Map<String, Object> row : jdbcTemplate.queryForList(sql, condition.args())) {
+                result.add(new IndexAdvice(names, String.valueOf(row.get("table")),
+                        String.valueOf(row.get("type")), String.valueOf(row.get("key"))));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * shape 의 비트 순서는 CONDITION_NAMES 와 같다
+     */
+    private static MemberCond sampleCond(int shape) {
+        MemberCond memberCond = new MemberCond();
+        if ((shape & 1) != 0) {
+            memberCond.setMemberName("member1");
+        }
+        if ((shape & 1 << 1) != 0) {
+            memberCond.setTeamName("teamA");
+        }
+        if ((shape & 1 << 2) != 0) {
+            memberCond.setAgeGoe(10);
+        }
+        if ((shape & 1 << 3) != 0) {
+            memberCond.setAgeLoe(40);
+        }
+        return memberCond;
+    }
+
+    @Getter
+    @ToString
+    public static class IndexAdvice {
+        private final List<String> conditions;
+        private final String table;
+        private final String accessType;
+        private final String key;
+
+        IndexAdvice(List<String> conditions, String table, String accessType, String key) {
+            this.conditions = conditions;
+            this.table = table;
+            this.accessType = accessType;
+            this.key = key;
+        }
+
+        /**
+         * 조건 없는 전체 조회는 풀스캔이 정상이므로 제외
+         */
+        public boolean isFullScan() {
+            return !conditions.isEmpty() && "ALL".equalsIgnoreCase(accessType);
+        }
+    }
+}
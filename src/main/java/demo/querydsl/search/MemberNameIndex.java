@@ -0,0 +1,112 @@
+package demo.querydsl.search;
+
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.entity.Member;
+import demo.querydsl.event.MemberBulkMutatedEvent;
+import demo.querydsl.event.PostCommitEntityListener;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * 회원 이름 PREFIX/CONTAINS 검색용 인덱스
+ * 기동 후 (id, name) 전체를 읽어서 만들고, 이후에는 커밋된 Member 저장/이름 변경/삭제 이벤트로 갱신
+ * JPQL 벌크 수정/삭제(MemberBulkRepository)는 이벤트가 없으므로 MemberBulkMutatedEvent 를 받으면 다시 만든다
+ */
+@Slf4j
+@Component
+public class MemberNameIndex extends PostCommitEntityListener {
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final RebuildableSnapshot<MemberNameNgramIndex> index = new RebuildableSnapshot<>(new MemberNameNgramIndex());
+    private volatile boolean ready;
+
+    public MemberNameIndex(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory, Member.class);
+    }
+
+    /**
+     * 스캔하는 동안 커밋된 변경은 새 인덱스에 다시 적용한 뒤 교체
+     */
+    @EventListener({ApplicationReadyEvent.class, MemberBulkMutatedEvent.class})
+    public void rebuild() {
+        index.rebuild(this::load);
+        ready = true;
+        log.info("member name index built: {} members", index.get().size());
+    }
+
+    private MemberNameNgramIndex load() {
+        MemberNameNgramIndex loaded = new MemberNameNgramIndex();
+        StatelessSession session = getEntityManagerFactory().unwrap(SessionFactory.class).openStatelessSession();
+        try {
+            ScrollableResults results = session.createQuery("select m.id, m.name from Member m")
+                    .setFetchSize(SCAN_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    loaded.put((Long) results.get(0), (String) results.get(1));
+                }
+            } finally {
+                results.close();
+            }
+        } finally {
+            session.close();
+        }
+        return loaded;
+    }
+
+    /**
+     * 인덱스가 만들어지기 전에는 false, 호출하는 쪽은 DB like 조건으로 대체
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return 일치하는 회원 id, limit 을 넘으면 null
+     */
+    public List<Long> findIds(String name, MemberNameMatch match, int limit) {
+        return index.get().findIds(name, match, limit);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Member member = (Member) event.getEntity();
+            Long id = member.getId();
+            String name = member.getName();
+            index.apply(names -> names.put(id, name));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Member member = (Member) event.getEntity();
+            Long id = member.getId();
+            String name = member.getName();
+            index.apply(names -> names.put(id, name));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long id = (Long) event.getId();
+            index.apply(names -> names.remove(id));
+        }
+    }
+}
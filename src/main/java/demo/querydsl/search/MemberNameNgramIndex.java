@@ -0,0 +1,180 @@
+package demo.querydsl.search;
+
+import demo.querydsl.dto.MemberNameMatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원 이름 -> id 메모리 인덱스 (JPQL 비교, 메모리 스냅샷과 같이 대소문자 구분)
+ * PREFIX 는 정렬된 이름 맵의 범위 조회, CONTAINS 는 3-gram 역색인 교집합 후 원래 이름으로 확인
+ * 3글자 미만 CONTAINS 는 gram 을 만들 수 없어서 전체 이름을 훑는다
+ */
+public class MemberNameNgramIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> byName = new TreeMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+
+    /**
+     * 추가 또는 이름 변경
+     */
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (name == null) {
+                return;
+            }
+            names.put(id, name);
+            byName.computeIfAbsent(name, k -> new HashSet<>()).add(id);
+            for (String gram : gramsOf(name)) {
+                grams.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param limit 최대 id 개수
+     * @return 일치하는 회원 id, limit 을 넘으면 null (호출하는 쪽에서 DB 조건으로 대체)
+     */
+    public List<Long> findIds(String name, MemberNameMatch match, int limit) {
+        lock.readLock().lock();
+        try {
+            switch (match) {
+                case EXACT:
+                    return limited(byName.getOrDefault(name, new HashSet<>()), limit);
+                case PREFIX:
+                    return findByPrefix(name, limit);
+                case CONTAINS:
+                    return name.length() < GRAM ? scanContains(name, limit) : findByGrams(name, limit);
+                default:
+                    throw new IllegalArgumentException("unknown match: " + match);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> findByPrefix(String prefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (Set<Long> matched : byName.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            ids.addAll(matched);
+            if (ids.size() > limit) {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> findByGrams(String key, int limit) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : gramsOf(key)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> smallest = postings.get(0);
+        List<Set<Long>> others = postings.subList(1, postings.size());
+        List<Long> ids = new ArrayList<>();
+        for (Long id : smallest) {
+            if (containsAll(others, id) && names.get(id).contains(key)) {
+                ids.add(id);
+                if (ids.size() > limit) {
+                    return null;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> scanContains(String key, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            if (entry.getValue().contains(key)) {
+                ids.add(entry.getKey());
+                if (ids.size() > limit) {
+                    return null;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void removeInternal(Long id) {
+        String old = names.remove(id);
+        if (old == null) {
+            return;
+        }
+        removePosting(byName, old, id);
+        for (String gram : gramsOf(old)) {
+            removePosting(grams, gram, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> posting = postings.get(key);
+        if (posting != null && posting.remove(id) && posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static boolean containsAll(List<Set<Long>> postings, Long id) {
+        for (Set<Long> posting : postings) {
+            if (!posting.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Long> limited(Collection<Long> ids, int limit) {
+        return ids.size() > limit ? null : new ArrayList<>(ids);
+    }
+
+    private static Set<String> gramsOf(String key) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            result.add(key.substring(i, i + GRAM));
+        }
+        return result;
+    }
+}
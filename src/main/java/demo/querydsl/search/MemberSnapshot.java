@@ -0,0 +1,133 @@
+package demo.querydsl.search;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberTeamDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import demo.querydsl.event.MemberBulkMutatedEvent;
+import demo.querydsl.event.PostCommitEntityListener;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * DB 를 거치지 않는 회원 검색용 스냅샷
+ * 기동 후 member/team 을 한 번 읽어서 만들고, 이후에는 커밋된 Member/Team 변경 이벤트로 갱신
+ * JPQL 벌크 수정/삭제(MemberBulkRepository)는 이벤트가 없으므로 MemberBulkMutatedEvent 를 받으면 다시 만든다
+ */
+@Slf4j
+@Component
+public class MemberSnapshot extends PostCommitEntityListener {
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final RebuildableSnapshot<MemberSnapshotStore> store = new RebuildableSnapshot<>(new MemberSnapshotStore());
+    private volatile boolean ready;
+
+    public MemberSnapshot(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory, Member.class, Team.class);
+    }
+
+    /**
+     * 스캔하는 동안 커밋된 변경은 새 스냅샷에 다시 적용한 뒤 교체
+     */
+    @EventListener({ApplicationReadyEvent.class, MemberBulkMutatedEvent.class})
+    public void rebuild() {
+        store.rebuild(this::load);
+        ready = true;
+        log.info("member snapshot built: {} members", store.get().size());
+    }
+
+    private MemberSnapshotStore load() {
+        MemberSnapshotStore loaded = new MemberSnapshotStore();
+        StatelessSession session = getEntityManagerFactory().unwrap(SessionFactory.class).openStatelessSession();
+        try {
+            ScrollableResults teams = session.createQuery("select t.id, t.name from Team t")
+                    .setFetchSize(SCAN_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (teams.next()) {
+                    loaded.putTeam((Long) teams.get(0), (String) teams.get(1));
+                }
+            } finally {
+                teams.close();
+            }
+
+            ScrollableResults members = session.createQuery("select m.id, m.name, m.age, m.team.id from Member m")
+                    .setFetchSize(SCAN_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (members.next()) {
+                    loaded.putMember((Long) members.get(0), (String) members.get(1),
+                            (Integer) members.get(2), (Long) members.get(3));
+                }
+            } finally {
+                members.close();
+            }
+        } finally {
+            session.close();
+        }
+        return loaded;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<MemberTeamDto> search(MemberCond memberCond) {
+        return store.get().search(memberCond);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        apply(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        apply(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Long id = (Long) event.getId();
+        if (event.getEntity() instanceof Member) {
+            store.apply(snapshot -> snapshot.removeMember(id));
+        } else if (event.getEntity() instanceof Team) {
+            store.apply(snapshot -> snapshot.removeTeam(id));
+        }
+    }
+
+    /**
+     * 값은 이벤트 시점에 꺼내둔다 (재생성 중이면 나중에 새 스냅샷에 다시 적용)
+     */
+    private void apply(Object entity) {
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            Long id = member.getId();
+            String name = member.getName();
+            int age = member.getAge();
+            // 팀 프록시에서 id 만 꺼내므로 지연로딩 없음
+            Long teamId = member.getTeam() == null ? null : member.getTeam().getId();
+            store.apply(snapshot -> snapshot.putMember(id, name, age, teamId));
+        } else if (entity instanceof Team) {
+            Team team = (Team) entity;
+            Long id = team.getId();
+            String name = team.getName();
+            store.apply(snapshot -> snapshot.putTeam(id, name));
+        }
+    }
+}
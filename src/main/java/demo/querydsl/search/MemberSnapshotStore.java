@@ -0,0 +1,230 @@
+package demo.querydsl.search;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.dto.MemberTeamDto;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Member/Team 메모리 스냅샷
+ * MemberCond 조건을 DB 쿼리(/v1/members)와 같은 의미로 평가
+ * - 이름/팀명은 JPQL = / like 처럼 그대로 비교 (대소문자 구분), 팀 조건이 있으면 팀 없는 회원 제외
+ * - 결과는 DB 쪽과 같이 memberId 순
+ * 팀명 인덱스와 나이 정렬 인덱스 중 후보가 적은 쪽으로 좁힌 뒤 나머지 조건으로 거른다
+ */
+public class MemberSnapshotStore {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, MemberRow> members = new HashMap<>();
+    private final Map<Long, String> teamNames = new HashMap<>();
+    private final Map<String, Set<Long>> teamIdsByName = new HashMap<>();
+    private final Map<Long, Set<Long>> membersByTeam = new HashMap<>();
+    private final NavigableMap<Integer, Set<Long>> membersByAge = new TreeMap<>();
+
+    public void putTeam(Long teamId, String name) {
+        lock.writeLock().lock();
+        try {
+            removeTeamInternal(teamId);
+            teamNames.put(teamId, name);
+            if (name != null) {
+                teamIdsByName.computeIfAbsent(name, k -> new HashSet<>()).add(teamId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeTeam(Long teamId) {
+        lock.writeLock().lock();
+        try {
+            removeTeamInternal(teamId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putMember(Long id, String name, int age, Long teamId) {
+        lock.writeLock().lock();
+        try {
+            removeMemberInternal(id);
+            members.put(id, new MemberRow(id, name, age, teamId));
+            membersByAge.computeIfAbsent(age, k -> new HashSet<>()).add(id);
+            if (teamId != null) {
+                membersByTeam.computeIfAbsent(teamId, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMember(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeMemberInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return members.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return memberId 순으로 정렬된 결과
+     */
+    public List<MemberTeamDto> search(MemberCond memberCond) {
+        lock.readLock().lock();
+        try {
+            List<MemberTeamDto> result = new ArrayList<>();
+            for (Long id : candidates(memberCond)) {
+                MemberRow row = members.get(id);
+                if (matches(row, memberCond)) {
+                    result.add(new MemberTeamDto(row.id, row.name, row.age, row.teamId,
+                            row.teamId == null ? null : teamNames.get(row.teamId)));
+                }
+            }
+            result.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(MemberCond memberCond) {
+        List<Set<Long>> byTeam = null;
+        int teamCount = Integer.MAX_VALUE;
+        if (StringUtils.hasText(memberCond.getTeamName())) {
+            byTeam = new ArrayList<>();
+            teamCount = 0;
+            for (Long teamId : teamIdsByName.getOrDefault(memberCond.getTeamName(), new HashSet<>())) {
+                Set<Long> teamMembers = membersByTeam.get(teamId);
+                if (teamMembers != null) {
+                    byTeam.add(teamMembers);
+                    teamCount += teamMembers.size();
+                }
+            }
+        }
+
+        Collection<Set<Long>> byAge = null;
+        int ageCount = Integer.MAX_VALUE;
+        if (memberCond.getAgeGoe() != null || memberCond.getAgeLoe() != null) {
+            byAge = ageRange(memberCond.getAgeGoe(), memberCond.getAgeLoe()).values();
+            ageCount = 0;
+            for (Set<Long> ageMembers : byAge) {
+                ageCount += ageMembers.size();
+            }
+        }
+
+        if (byTeam != null && teamCount <= ageCount) {
+            return flatten(byTeam, teamCount);
+        }
+        if (byAge != null) {
+            return flatten(byAge, ageCount);
+        }
+        return members.keySet();
+    }
+
+    private NavigableMap<Integer, Set<Long>> ageRange(Integer ageGoe, Integer ageLoe) {
+        if (ageGoe != null && ageLoe != null) {
+            return ageGoe > ageLoe ? new TreeMap<>() : membersByAge.subMap(ageGoe, true, ageLoe, true);
+        }
+        return ageGoe != null ? membersByAge.tailMap(ageGoe, true) : membersByAge.headMap(ageLoe, true);
+    }
+
+    private boolean matches(MemberRow row, MemberCond memberCond) {
+        if (StringUtils.hasText(memberCond.getMemberName()) && !nameMatches(row.name, memberCond)) {
+            return false;
+        }
+        if (StringUtils.hasText(memberCond.getTeamName())) {
+            String teamName = row.teamId == null ? null : teamNames.get(row.teamId);
+            if (teamName == null || !teamName.equals(memberCond.getTeamName())) {
+                return false;
+            }
+        }
+        if (memberCond.getAgeGoe() != null && row.age < memberCond.getAgeGoe()) {
+            return false;
+        }
+        return memberCond.getAgeLoe() == null || row.age <= memberCond.getAgeLoe();
+    }
+
+    private static boolean nameMatches(String name, MemberCond memberCond) {
+        if (name == null) {
+            return false;
+        }
+        String expected = memberCond.getMemberName();
+        MemberNameMatch match = memberCond.getMemberNameMatch();
+        if (match == MemberNameMatch.PREFIX) {
+            return name.startsWith(expected);
+        }
+        if (match == MemberNameMatch.CONTAINS) {
+            return name.contains(expected);
+        }
+        return name.equals(expected);
+    }
+
+    private void removeTeamInternal(Long teamId) {
+        String old = teamNames.remove(teamId);
+        if (old != null) {
+            removePosting(teamIdsByName, old, teamId);
+        }
+    }
+
+    private void removeMemberInternal(Long id) {
+        MemberRow old = members.remove(id);
+        if (old == null) {
+            return;
+        }
+        removePosting(membersByAge, old.age, id);
+        if (old.teamId != null) {
+            removePosting(membersByTeam, old.teamId, id);
+        }
+    }
+
+    private static <K> void removePosting(Map<K, Set<Long>> postings, K key, Long id) {
+        Set<Long> posting = postings.get(key);
+        if (posting != null && posting.remove(id) && posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static List<Long> flatten(Collection<Set<Long>> postings, int size) {
+        List<Long> ids = new ArrayList<>(size);
+        for (Set<Long> posting : postings) {
+            ids.addAll(posting);
+        }
+        return ids;
+    }
+
+    private static class MemberRow {
+        final Long id;
+        final String name;
+        final int age;
+        final Long teamId;
+
+        MemberRow(Long id, String name, int age, Long teamId) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.teamId = teamId;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package demo.querydsl.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 통째로 다시 만들 수 있는 메모리 스냅샷 holder
+ * 다시 만드는 동안 들어온 변경은 현재 스냅샷에 적용하면서 모아뒀다가, 새 스냅샷에 같은 순서로 재적용한 뒤 교체
+ * -> 재생성 중 커밋된 저장/변경/삭제가 교체 시점에 사라지지 않는다 (변경은 같은 값을 여러 번 적용해도 되는 put/remove)
+ */
+class RebuildableSnapshot<T> {
+
+    private final Object lock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile T current;
+    private List<Consumer<T>> pending;
+
+    RebuildableSnapshot(T initial) {
+        this.current = initial;
+    }
+
+    T get() {
+        return current;
+    }
+
+    void apply(Consumer<T> change) {
+        synchronized (lock) {
+            change.accept(current);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+
+    /**
+     * loader 는 락 밖에서 실행 (DB 전체 스캔 중에도 조회/변경은 계속 현재 스냅샷으로)
+     * 재생성 요청이 겹치면 차례로 실행 -> 뒤 요청은 앞 재생성이 시작된 뒤의 DB 상태까지 읽는다
+     */
+    void rebuild(Supplier<T> loader) {
+        synchronized (rebuildLock) {
+            synchronized (lock) {
+                pending = new ArrayList<>();
+            }
+
+            T rebuilt;
+            try {
+                rebuilt = loader.get();
+            } catch (RuntimeException | Error e) {
+                synchronized (lock) {
+                    pending = null;
+                }
+                throw e;
+            }
+
+            synchronized (lock) {
+                for (Consumer<T> change : pending) {
+                    change.accept(rebuilt);
+                }
+                current = rebuilt;
+                pending = null;
+            }
+        }
+    }
+}
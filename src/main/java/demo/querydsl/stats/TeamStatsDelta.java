@@ -0,0 +1,151 @@
+package demo.querydsl.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 한 트랜잭션 동안 쌓인 팀별 통계 변화량
+ * 커밋 직전(flush 이후) 같은 커넥션으로 team_stats 에 반영
+ * - 추가분: count/sum 증감, min/max 는 least/greatest
+ * - 빠진 회원이 있는 팀: min/max 만 (TEAM_ID, age) 인덱스로 다시 계산
+ * - team_name 은 매번 team 테이블의 현재 이름으로 덮어쓰고, 이름만 바뀐 팀은 이름만 갱신
+ * UPSERT 는 MariaDB/MySQL 전용 문법 (insert ... on duplicate key update)
+ * 통계 반영은 savepoint 안에서 하고 실패하면 그 부분만 되돌리고 경고 로그, 회원 쓰기는 그대로 커밋된다
+ * 이때 어긋난 team_stats 는 TeamStatsReconciler 가 맞춘다
+ */
+@Slf4j
+class TeamStatsDelta implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+    private static final String UPSERT = "insert into team_stats (team_id, team_name, member_count, age_sum, age_min, age_max)"
+            + " select t.team_id, t.name, ?, ?, ?, ? from team t where t.team_id = ?"
+            + " on duplicate key update"
+            + " team_name = values(team_name),"
+            + " member_count = member_count + values(member_count),"
+            + " age_sum = age_sum + values(age_sum),"
+            + " age_min = coalesce(least(age_min, values(age_min)), age_min, values(age_min)),"
+            + " age_max = coalesce(greatest(age_max, values(age_max)), age_max, values(age_max))";
+
+    private static final String RECOMPUTE_MIN_MAX = "update team_stats"
+            + " set age_min = (select min(m.age) from member m where m.team_id = ?),"
+            + " age_max = (select max(m.age) from member m where m.team_id = ?)"
+            + " where team_id = ?";
+
+    private static final String RENAME = "update team_stats"
+            + " set team_name = (select t.name from team t where t.team_id = ?)"
+            + " where team_id = ?";
+
+    private final Map<Long, TeamChange> changes = new HashMap<>();
+    private final Set<Long> renamed = new HashSet<>();
+    private final Consumer<TeamStatsDelta> onComplete;
+
+    TeamStatsDelta(Consumer<TeamStatsDelta> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    void add(Long teamId, int age) {
+        TeamChange change = changes.computeIfAbsent(teamId, id -> new TeamChange());
+        change.count++;
+        change.sum += age;
+        change.min = change.min == null ? age : Math.min(change.min, age);
+        change.max = change.max == null ? age : Math.max(change.max, age);
+    }
+
+    void remove(Long teamId, int age) {
+        TeamChange change = changes.computeIfAbsent(teamId, id -> new TeamChange());
+        change.count--;
+        change.sum -= age;
+        change.removed = true;
+    }
+
+    void rename(Long teamId) {
+        renamed.add(teamId);
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        if (changes.isEmpty() && renamed.isEmpty()) {
+            return;
+        }
+        session.doWork(this::applyNonFatal);
+    }
+
+    @Override
+    public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+        onComplete.accept(this);
+    }
+
+    private void applyNonFatal(Connection connection) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            apply(connection);
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback(savepoint);
+            log.warn("team_stats update skipped for teams {} {}, reconciler will repair: {}",
+                    changes.keySet(), renamed, e.toString());
+        }
+    }
+
+    private void apply(Connection connection) throws SQLException {
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT);
+             PreparedStatement recompute = connection.prepareStatement(RECOMPUTE_MIN_MAX);
+             PreparedStatement rename = connection.prepareStatement(RENAME)) {
+            for (Map.Entry<Long, TeamChange> entry : changes.entrySet()) {
+                TeamChange change = entry.getValue();
+                upsert.setLong(1, change.count);
+                upsert.setLong(2, change.sum);
+                setNullableInt(upsert, 3, change.min);
+                setNullableInt(upsert, 4, change.max);
+                upsert.setLong(5, entry.getKey());
+                upsert.addBatch();
+
+                if (change.removed) {
+                    recompute.setLong(1, entry.getKey());
+                    recompute.setLong(2, entry.getKey());
+                    recompute.setLong(3, entry.getKey());
+                    recompute.addBatch();
+                }
+            }
+            for (Long teamId : renamed) {
+                if (!changes.containsKey(teamId)) {
+                    rename.setLong(1, teamId);
+                    rename.setLong(2, teamId);
+                    rename.addBatch();
+                }
+            }
+            upsert.executeBatch();
+            recompute.executeBatch();
+            rename.executeBatch();
+        }
+    }
+
+    private static void setNullableInt(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    private static class TeamChange {
+        long count;
+        long sum;
+        Integer min;
+        Integer max;
+        boolean removed;
+    }
+}
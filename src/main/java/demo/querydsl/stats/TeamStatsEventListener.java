@@ -0,0 +1,170 @@
+package demo.querydsl.stats;
+
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member 의 insert / 나이 변경 / 팀 변경(changeTeam) / delete 를 받아서 팀별 변화량을 모은다
+ * Team 이름 변경은 team_stats.team_name 만 다시 쓴다
+ * 수정은 update SQL 직전(pre-update)에 받는다, 이전 상태가 없는 경우(Session.update 로 붙인 준영속 엔티티)
+ * 아직 바뀌지 않은 DB 행에서 이전 팀/나이를 읽어온다
+ * 실제 team_stats 반영은 트랜잭션 커밋 직전에 TeamStatsDelta 가 한 번에 한다
+ * JPQL 벌크 수정/삭제(MemberBulkRepository)는 이벤트가 없으므로 TeamStatsReconciler 로 맞춘다
+ */
+@Component
+public class TeamStatsEventListener implements PostInsertEventListener, PreUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<EventSource, TeamStatsDelta> deltas = new ConcurrentHashMap<>();
+
+    public TeamStatsEventListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        Member member = (Member) event.getEntity();
+        if (member.getTeam() != null) {
+            deltaOf(event.getSession()).add(member.getTeam().getId(), member.getAge());
+        }
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        if (event.getEntity() instanceof Team) {
+            onTeamUpdate(event);
+            return false;
+        }
+        if (!(event.getEntity() instanceof Member)) {
+            return false;
+        }
+        EntityPersister persister = event.getPersister();
+        int teamIndex = persister.getEntityMetamodel().getPropertyIndex("team");
+        int ageIndex = persister.getEntityMetamodel().getPropertyIndex("age");
+
+        Long oldTeamId;
+        int oldAge;
+        if (event.getOldState() != null) {
+            oldTeamId = teamIdOf(event.getOldState()[teamIndex]);
+            oldAge = (Integer) event.getOldState()[ageIndex];
+        } else {
+            Object[] previous = loadPrevious(event.getSession(), (Long) event.getId());
+            if (previous == null) {
+                return false;
+            }
+            oldTeamId = (Long) previous[0];
+            oldAge = (Integer) previous[1];
+        }
+        Long newTeamId = teamIdOf(event.getState()[teamIndex]);
+        int newAge = (Integer) event.getState()[ageIndex];
+        if (Objects.equals(oldTeamId, newTeamId) && oldAge == newAge) {
+            return false;
+        }
+
+        TeamStatsDelta delta = deltaOf(event.getSession());
+        if (oldTeamId != null) {
+            delta.remove(oldTeamId, oldAge);
+        }
+        if (newTeamId != null) {
+            delta.add(newTeamId, newAge);
+        }
+        return false;
+    }
+
+    /**
+     * 이전 상태가 없으면(준영속 엔티티) 이름이 바뀌었다고 보고 다시 쓴다
+     */
+    private void onTeamUpdate(PreUpdateEvent event) {
+        int nameIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("name");
+        if (event.getOldState() == null
+                || !Objects.equals(event.getOldState()[nameIndex], event.getState()[nameIndex])) {
+            deltaOf(event.getSession()).rename((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getDeletedState();
+        Long teamId = teamIdOf(state[persister.getEntityMetamodel().getPropertyIndex("team")]);
+        if (teamId != null) {
+            deltaOf(event.getSession()).remove(teamId, (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")]);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private TeamStatsDelta deltaOf(EventSource session) {
+        return deltas.computeIfAbsent(session, key -> {
+            TeamStatsDelta delta = new TeamStatsDelta(completed -> deltas.remove(key));
+            key.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) delta);
+            key.getActionQueue().registerProcess((AfterTransactionCompletionProcess) delta);
+            return delta;
+        });
+    }
+
+    /**
+     * flush 중이므로 쿼리(auto flush) 대신 같은 커넥션으로 직접 읽는다
+     * @return {team_id, age}, 행이 없으면 null
+     */
+    private static Object[] loadPrevious(EventSource session, Long memberId) {
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select team_id, age from member where member_id = ?")) {
+                statement.setLong(1, memberId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    long teamId = rs.getLong(1);
+                    return new Object[]{rs.wasNull() ? null : teamId, rs.getInt(2)};
+                }
+            }
+        });
+    }
+
+    private static Long teamIdOf(Object team) {
+        return team == null ? null : ((Team) team).getId();
+    }
+}
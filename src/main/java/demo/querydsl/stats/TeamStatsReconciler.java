@@ -0,0 +1,91 @@
+package demo.querydsl.stats;
+
+import demo.querydsl.entity.TeamStats;
+import demo.querydsl.event.MemberBulkMutatedEvent;
+import demo.querydsl.repository.TeamStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * team_stats 를 member 테이블에서 처음부터 다시 계산해서 덮어쓰고, 증분 갱신과 달랐던 팀 수를 보고 (팀 이름 포함)
+ * (벌크 JPQL 수정/삭제처럼 엔티티 이벤트를 거치지 않은 변경 보정용, MemberBulkMutatedEvent 를 받으면 바로 실행)
+ */
+@Slf4j
+@Component
+public class TeamStatsReconciler {
+
+    private static final String AGGREGATE = "select t.team_id, t.name, count(*), sum(m.age), min(m.age), max(m.age)"
+            + " from member m join team t on m.team_id = t.team_id"
+            + " group by t.team_id, t.name";
+
+    private final EntityManager entityManager;
+    private final TeamStatsRepository teamStatsRepository;
+
+    public TeamStatsReconciler(EntityManager entityManager, TeamStatsRepository teamStatsRepository) {
+        this.entityManager = entityManager;
+        this.teamStatsRepository = teamStatsRepository;
+    }
+
+    /**
+     * @return 증분 값과 달랐던 팀 수
+     */
+    @Scheduled(cron = "${team-stats.reconcile-cron:0 0 4 * * *}")
+    @Transactional
+    public int reconcile() {
+        Map<Long, TeamStats> current = new HashMap<>();
+        for (TeamStats stats : teamStatsRepository.findAll()) {
+            current.put(stats.getTeamId(), stats);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> fresh = entityManager.createNativeQuery(AGGREGATE).getResultList();
+
+        int drift = 0;
+        for (Object[] row : fresh) {
+            TeamStats stats = current.remove(((Number) row[0]).longValue());
+            if (stats == null
+                    || !Objects.equals(stats.getTeamName(), row[1])
+                    || stats.getMemberCount() != ((Number) row[2]).longValue()
+                    || stats.getAgeSum() != ((Number) row[3]).longValue()
+                    || !Objects.equals(stats.getAgeMin(), ((Number) row[4]).intValue())
+                    || !Objects.equals(stats.getAgeMax(), ((Number) row[5]).intValue())) {
+                drift++;
+            }
+        }
+        for (TeamStats stale : current.values()) {
+            if (stale.getMemberCount() != 0) {
+                drift++;
+            }
+        }
+
+        entityManager.createNativeQuery("delete from team_stats").executeUpdate();
+        entityManager.createNativeQuery("insert into team_stats (team_id, team_name, member_count, age_sum, age_min, age_max) "
+                + AGGREGATE).executeUpdate();
+        entityManager.clear();
+
+        if (drift > 0) {
+            log.warn("team_stats drift: {} teams rebuilt", drift);
+        } else {
+            log.info("team_stats reconciled, no drift");
+        }
+        return drift;
+    }
+
+    /**
+     * 리스너 반환값은 다시 이벤트로 발행되므로 void 로 감싼다
+     */
+    @EventListener(MemberBulkMutatedEvent.class)
+    @Transactional
+    public void onBulkMutated() {
+        reconcile();
+    }
+}
@@ -13,6 +13,7 @@ import demo.querydsl.dto.QMemberDto;
 import demo.querydsl.dto.UserDto;
 import demo.querydsl.entity.Member;
 import demo.querydsl.entity.Team;
+import demo.querydsl.projection.FastProjections;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -125,6 +126,23 @@ public class QuerydslMiddleTest {
         }
     }
 
+    /**
+     * 리플렉션 대신 캐시된 람다로 setter 호출 (별칭 포함)
+     */
+    @Test
+    public void findDtoByFastProjection() {
+        List<UserDto> result = queryFactory
+                .select(FastProjections.bean(UserDto.class,
+                        member.name.as("userName"),
+                        member.age))
+                .from(member)
+                .where(member.name.eq("memberTest1"))
+                .fetch();
+
+        assertThat(result).extracting("userName").containsExactly("memberTest1");
+        assertThat(result).extracting("age").containsExactly(10);
+    }
+
     @Test
     public void findDtoBtQueryProjection() {
         List<MemberDto> memberDtos = queryFactory
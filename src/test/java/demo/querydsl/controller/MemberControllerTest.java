@@ -0,0 +1,167 @@
+package demo.querydsl.controller;
+
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 이름 인덱스는 커밋된 변경만 반영하므로 테스트 트랜잭션 없이 커밋, 끝나면 삭제
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("ctrlTeam");
+            entityManager.persist(team);
+            entityManager.persist(new Member("ctrlMember1", 10, team));
+            entityManager.persist(new Member("ctrlMember10", 20, team));
+            entityManager.persist(new Member("ctrlMember2", 30, team));
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("select m from Member m where m.name like 'ctrlMember%'", Member.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("delete from team_stats where team_name = 'ctrlTeam'").executeUpdate();
+            entityManager.createQuery("select t from Team t where t.name = 'ctrlTeam'", Team.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+    }
+
+    @Test
+    public void searchPrefix() throws Exception {
+        mockMvc.perform(get("/v1/members")
+                        .param("memberName", "ctrlMember1")
+                        .param("memberNameMatch", "PREFIX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].memberName", containsInAnyOrder("ctrlMember1", "ctrlMember10")));
+    }
+
+    /**
+     * 커밋 이벤트 없이 바뀐 이름은 인덱스에 늦게 반영되지만, like 로 다시 확인하므로 결과에 들어가지 않는다
+     */
+    @Test
+    public void staleNameIndexIsRechecked() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createNativeQuery("update member set name = 'ctrlMemberX' where name = 'ctrlMember2'")
+                        .executeUpdate());
+
+        mockMvc.perform(get("/v1/members")
+                        .param("memberName", "ctrlMember2")
+                        .param("memberNameMatch", "PREFIX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/v2/members/page")
+                        .param("memberName", "Member2")
+                        .param("memberNameMatch", "CONTAINS")
+                        .param("teamName", "ctrlTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    /**
+     * 3글자 미만 CONTAINS 는 인덱스가 전체 이름을 훑어서 처리
+     */
+    @Test
+    public void shortContains() throws Exception {
+        mockMvc.perform(get("/v1/members")
+                        .param("memberName", "10")
+                        .param("memberNameMatch", "CONTAINS")
+                        .param("teamName", "ctrlTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].memberName", containsInAnyOrder("ctrlMember10")));
+    }
+
+    @Test
+    public void rejectInvalidKeysetParams() throws Exception {
+        mockMvc.perform(get("/v2/members").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v2/members").param("size", "100000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v2/members").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void rejectUnsupportedSortProperty() throws Exception {
+        mockMvc.perform(get("/v1/members/teams")
+                        .param("teamNames", "ctrlTeam")
+                        .param("sort", "memberName,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].memberName").value("ctrlMember2"));
+        mockMvc.perform(get("/v1/members/teams")
+                        .param("teamNames", "ctrlTeam")
+                        .param("sort", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v2/members/page").param("sort", "team.password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * 같은 MemberCond 면 DB / 메모리 스냅샷 결과가 순서까지 같아야 한다
+     */
+    @Test
+    public void sameResultOnBothBackends() throws Exception {
+        assertSameOnBothBackends("teamName", "ctrlTeam");
+        assertSameOnBothBackends("teamName", "ctrlTeam", "ageGoe", "15");
+        assertSameOnBothBackends("memberName", "ctrlMember2");
+        assertSameOnBothBackends("memberName", "ctrlMember1", "memberNameMatch", "PREFIX");
+        assertSameOnBothBackends("memberName", "Member1", "memberNameMatch", "CONTAINS", "teamName", "ctrlTeam");
+    }
+
+    private void assertSameOnBothBackends(String... params) throws Exception {
+        String db = mockMvc.perform(searchRequest("DB", params))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String memory = mockMvc.perform(searchRequest("MEMORY", params))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(memory).isEqualTo(db);
+        assertThat(db).isNotEqualTo("[]");
+    }
+
+    private static MockHttpServletRequestBuilder searchRequest(String backend, String... params) {
+        MockHttpServletRequestBuilder request = get("/v1/members").param("backend", backend);
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package demo.querydsl.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 프라이머리/레플리카 대신 H2 메모리 DB 두 개로 라우팅 확인
+ */
+class ReplicaRoutingDataSourceTest {
+
+    ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void before() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica1", new DriverManagerDataSource("jdbc:h2:mem:replica1"));
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, 5);
+    }
+
+    @AfterEach
+    public void after() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void writeGoesToPrimary() throws SQLException {
+        assertThat(connectedUrl()).isEqualTo("jdbc:h2:mem:primary");
+    }
+
+    @Test
+    public void readOnlyGoesToReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(connectedUrl()).isEqualTo("jdbc:h2:mem:replica1");
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routingDataSource.updateLag("replica1", 30L);
+        assertThat(connectedUrl()).isEqualTo("jdbc:h2:mem:primary");
+
+        routingDataSource.updateLag("replica1", 1L);
+        assertThat(connectedUrl()).isEqualTo("jdbc:h2:mem:replica1");
+    }
+
+    @Test
+    public void closeClosesTargetPools() throws SQLException {
+        HikariDataSource primary = pool("jdbc:h2:mem:closePrimary");
+        HikariDataSource replica = pool("jdbc:h2:mem:closeReplica");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica1", replica);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, 5);
+        connectedUrl();
+
+        routingDataSource.close();
+
+        assertThat(primary.isClosed()).isTrue();
+        assertThat(replica.isClosed()).isTrue();
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        return dataSource;
+    }
+
+    private String connectedUrl() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
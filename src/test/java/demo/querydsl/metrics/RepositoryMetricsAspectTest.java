@@ -0,0 +1,43 @@
+package demo.querydsl.metrics;
+
+import demo.querydsl.repository.MemberJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * 호출마다 SQL 1개라도 한 트랜잭션에서 임계치(10)를 넘으면 N+1 의심
+     */
+    @Test
+    public void nPlusOneAcrossCallsInTransaction() {
+        double before = nPlusOneCount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long id = 1; id <= 11; id++) {
+                memberJpaRepository.findById(-id);
+            }
+        });
+
+        assertThat(nPlusOneCount()).isEqualTo(before + 1);
+    }
+
+    private double nPlusOneCount() {
+        return meterRegistry.counter("repository.query.n_plus_one", "method", "MemberJpaRepository.findById").count();
+    }
+}
\ No newline at end of file
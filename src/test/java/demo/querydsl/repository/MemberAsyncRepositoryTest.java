@@ -0,0 +1,177 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.controller.MemberController;
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberTeamDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 검색은 executor 스레드의 별도 트랜잭션에서 실행되므로 테스트 트랜잭션 없이 커밋, 끝나면 삭제
+ * 포화 테스트는 latch 를 기다리는 MemberRepository 로 작은 MemberAsyncRepository 를 직접 만들어서 확인
+ */
+@SpringBootTest
+class MemberAsyncRepositoryTest {
+
+    @Autowired
+    MemberAsyncRepository memberAsyncRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("asyncTeam");
+            entityManager.persist(team);
+            for (int i = 0; i < 5; i++) {
+                entityManager.persist(new Member("asyncMember" + i, i * 10, team));
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        release.countDown();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("select m from Member m where m.name like 'asyncMember%'", Member.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("delete from team_stats where team_name = 'asyncTeam'").executeUpdate();
+            entityManager.createQuery("select t from Team t where t.name = 'asyncTeam'", Team.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+    }
+
+    /**
+     * 컨텐츠/카운트를 동시에 실행해도 searchPageComplex 와 같은 페이지
+     */
+    @Test
+    public void searchPageMatchesSearchPageComplex() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("asyncTeam");
+
+        for (int page = 0; page < 3; page++) {
+            PageRequest pageable = PageRequest.of(page, 2);
+            Page<MemberTeamDto> async = memberAsyncRepository.searchPage(memberCond, pageable).join();
+            Page<MemberTeamDto> sync = memberRepository.searchPageComplex(memberCond, pageable);
+
+            assertThat(async.getContent()).containsExactlyElementsOf(sync.getContent());
+            assertThat(async.getTotalElements()).isEqualTo(sync.getTotalElements()).isEqualTo(5);
+        }
+    }
+
+    /**
+     * 스레드 1개 + 큐 1칸: 첫 페이지 조회가 스레드와 큐를 모두 쓰면 다음 요청은 503
+     */
+    @Test
+    public void saturatedExecutorAnswers503() throws Exception {
+        MemberAsyncRepository saturated = new MemberAsyncRepository(blockingRepository(), 1, 1, false);
+        try {
+            CompletableFuture<Page<MemberTeamDto>> running = saturated.searchPage(new MemberCond(), PageRequest.of(0, 2));
+
+            MockMvc mockMvc = MockMvcBuilders
+                    .standaloneSetup(new MemberController(null, null, saturated, null, null, null))
+                    .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                    .build();
+            mockMvc.perform(get("/v1/members/page").param("teamName", "asyncTeam"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS).getContent()).isNotEmpty();
+        } finally {
+            saturated.shutdown();
+        }
+    }
+
+    /**
+     * 가상 스레드는 스레드 수 제한이 없으므로 동시 실행을 permit(풀 크기)으로 제한
+     * 거절된 페이지 조회가 먼저 잡은 permit 은 바로 돌려준다
+     */
+    @Test
+    public void virtualThreadsAreBoundedByPermits() throws Exception {
+        assumeTrue(virtualThreadsAvailable(), "JDK 21+ only");
+
+        MemberAsyncRepository bounded = new MemberAsyncRepository(blockingRepository(), 3, 1, true);
+        try {
+            MemberCond memberCond = new MemberCond();
+            memberCond.setTeamName("asyncTeam");
+            CompletableFuture<Page<MemberTeamDto>> page = bounded.searchPage(memberCond, PageRequest.of(0, 2));
+
+            // 남은 permit 1개로 컨텐츠는 시작하지만 카운트가 거절 -> 컨텐츠 취소, permit 반환
+            assertThatThrownBy(() -> bounded.searchPage(memberCond, PageRequest.of(0, 2)))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            CompletableFuture<List<MemberTeamDto>> search = bounded.search(memberCond);
+            assertThatThrownBy(() -> bounded.search(memberCond))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            release.countDown();
+            assertThat(page.get(5, TimeUnit.SECONDS).getTotalElements()).isEqualTo(5);
+            assertThat(search.get(5, TimeUnit.SECONDS)).hasSize(5);
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    /**
+     * release 가 열릴 때까지 기다린 뒤 실제 리포지토리로 위임
+     */
+    private MemberRepository blockingRepository() {
+        return (MemberRepository) Proxy.newProxyInstance(MemberRepository.class.getClassLoader(),
+                new Class<?>[]{MemberRepository.class},
+                (proxy, method, args) -> {
+                    release.await();
+                    return method.invoke(memberRepository, args);
+                });
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.BulkMutationResult;
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.dto.MemberTeamDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import demo.querydsl.search.MemberNameIndex;
+import demo.querydsl.search.MemberSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static demo.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 청크마다 별도 트랜잭션으로 커밋되므로 테스트 트랜잭션 없이 실행, 끝나면 삭제
+ */
+@SpringBootTest
+class MemberBulkRepositoryTest {
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    @Autowired
+    MemberSnapshot memberSnapshot;
+
+    @Autowired
+    MemberNameIndex memberNameIndex;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("bulkTeam");
+            entityManager.persist(team);
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                members.add(new Member("bulkTest" + i, i * 10, team));
+            }
+            memberJpaRepository.saveAll(members);
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        memberBulkRepository.delete(member.name.startsWith("bulkTest"), 3);
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("delete from team_stats where team_name = 'bulkTeam'").executeUpdate();
+            entityManager.createQuery("select t from Team t where t.name = 'bulkTeam'", Team.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+    }
+
+    @Test
+    public void updateInChunks() {
+        BulkMutationResult result = memberBulkRepository.update(
+                member.name.startsWith("bulkTest").and(member.age.lt(50)),
+                clause -> clause.set(member.age, member.age.add(1)),
+                3);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getAffectedPerChunk()).hasSizeGreaterThan(1);
+        assertThat(memberJpaRepository.findByName_Querydsl("bulkTest1"))
+                .extracting("age").containsExactly(11);
+
+        // 이벤트 없이 바뀐 값도 스냅샷/team_stats 에 반영
+        assertThat(memberSnapshot.search(nameCond("bulkTest1", MemberNameMatch.EXACT)))
+                .extracting("age").containsExactly(11);
+        assertThat(teamStatsRepository.findStatsByTeamName("bulkTeam").get().getAgeSum()).isEqualTo(455);
+    }
+
+    @Test
+    public void deleteInChunks() {
+        BulkMutationResult result = memberBulkRepository.delete(
+                member.name.startsWith("bulkTest").and(member.age.goe(50)), 3);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(memberJpaRepository.findByName_Querydsl("bulkTest9")).isEmpty();
+
+        // 삭제된 회원은 이름 인덱스/스냅샷/team_stats 에서도 빠진다
+        assertThat(memberNameIndex.findIds("bulkTest", MemberNameMatch.PREFIX, 100)).hasSize(5);
+        assertThat(memberSnapshot.search(nameCond("bulkTest", MemberNameMatch.PREFIX)))
+                .extracting(MemberTeamDto::getMemberName)
+                .containsExactly("bulkTest0", "bulkTest1", "bulkTest2", "bulkTest3", "bulkTest4");
+        assertThat(teamStatsRepository.findStatsByTeamName("bulkTeam").get().getMemberCount()).isEqualTo(5);
+    }
+
+    private static MemberCond nameCond(String memberName, MemberNameMatch match) {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setMemberName(memberName);
+        memberCond.setMemberNameMatch(match);
+        return memberCond;
+    }
+}
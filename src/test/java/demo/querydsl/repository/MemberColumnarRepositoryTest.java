@@ -0,0 +1,63 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberColumns;
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.TeamAgeStatsDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberColumnarRepositoryTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    MemberColumnarRepository memberColumnarRepository;
+
+    @Test
+    public void aggregateByTeam() {
+        Team teamA = new Team("columnTeamA");
+        Team teamB = new Team("columnTeamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        entityManager.persist(new Member("memberTest1", 10, teamA));
+        entityManager.persist(new Member("memberTest2", 20, teamA));
+        entityManager.persist(new Member("memberTest3", 30, teamB));
+        entityManager.persist(new Member("memberTest4", 40, teamB));
+        entityManager.flush();
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setAgeGoe(10);
+        memberCond.setAgeLoe(40);
+        MemberColumns columns = memberColumnarRepository.findAgeColumns(memberCond);
+        List<TeamAgeStatsDto> stats = columns.aggregateByTeam();
+
+        assertThat(stats).filteredOn(dto -> dto.getTeamName().equals("columnTeamA"))
+                .singleElement()
+                .satisfies(dto -> {
+                    assertThat(dto.getCount()).isEqualTo(2);
+                    assertThat(dto.getAgeAvg()).isEqualTo(15);
+                    assertThat(dto.getAgeMax()).isEqualTo(20);
+                });
+        assertThat(stats).filteredOn(dto -> dto.getTeamName().equals("columnTeamB"))
+                .singleElement()
+                .satisfies(dto -> assertThat(dto.getAgeAvg()).isEqualTo(35));
+
+        // 사전은 teamCodes 와 같이 유지되므로 밖에서 바꿀 수 없다
+        assertThatThrownBy(() -> columns.getTeamDictionary().add("columnTeamC"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,137 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.dto.MemberTeamDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 파티션이 다른 스레드/트랜잭션에서 조회하므로 테스트 트랜잭션 없이 커밋, 끝나면 삭제
+ */
+@SpringBootTest
+class MemberFanOutSearchTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team fanTeamA = new Team("fanTeamA");
+            Team fanTeamB = new Team("fanTeamB");
+            Team fanTeamC = new Team("fanTeamC");
+            entityManager.persist(fanTeamA);
+            entityManager.persist(fanTeamB);
+            entityManager.persist(fanTeamC);
+
+            // A: 10, 40, 70 / B: 20, 50, 80 / C: 30, 60, 90
+            Team[] teams = {fanTeamA, fanTeamB, fanTeamC};
+            for (int i = 1; i <= 9; i++) {
+                entityManager.persist(new Member("fanOut" + i, i * 10, teams[(i - 1) % 3]));
+            }
+        });
+    }
+
+    /**
+     * 엔티티 삭제로 지워서 이름 인덱스/스냅샷/team_stats 갱신 이벤트가 그대로 돌게 한다
+     */
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("select m from Member m where m.name like 'fanOut%'", Member.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("delete from team_stats where team_name like 'fanTeam%'").executeUpdate();
+            entityManager.createQuery("select t from Team t where t.name like 'fanTeam%'", Team.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+    }
+
+    @Test
+    public void mergeSortedPartitions() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setAgeLoe(80);
+        PageRequest pageRequest = PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "age"));
+
+        Page<MemberTeamDto> result = memberRepository.searchTeamsFanOut(memberCond,
+                Arrays.asList("fanTeamA", "fanTeamB", "fanTeamC"), pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(8);
+        assertThat(result.getContent()).extracting("age").containsExactly(50, 40, 30);
+    }
+
+    @Test
+    public void onlyRequestedTeams() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("age"));
+
+        Page<MemberTeamDto> result = memberRepository.searchTeamsFanOut(new MemberCond(),
+                Arrays.asList("fanTeamA", "fanTeamC"), pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(6);
+        assertThat(result.getContent()).extracting("age").containsExactly(10, 30, 40, 60, 70, 90);
+    }
+
+    @Test
+    public void ignoreBlankAndDuplicateTeamNames() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("age"));
+
+        Page<MemberTeamDto> result = memberRepository.searchTeamsFanOut(new MemberCond(),
+                Arrays.asList("fanTeamA", "", " ", "fanTeamA"), pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).extracting("age").containsExactly(10, 40, 70);
+
+        assertThatThrownBy(() -> memberRepository.searchTeamsFanOut(new MemberCond(),
+                Arrays.asList("", " "), pageRequest))
+                .isInstanceOf(InvalidSearchConditionException.class);
+    }
+
+    /**
+     * 문자열 정렬은 DB 가 정렬한 순서 그대로 (searchPageSimple 결과와 같아야 한다)
+     */
+    @Test
+    public void stringSortFollowsDatabaseOrder() {
+        PageRequest pageRequest = PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "memberName"));
+
+        Page<MemberTeamDto> fanOut = memberRepository.searchTeamsFanOut(new MemberCond(),
+                Arrays.asList("fanTeamA", "fanTeamB", "fanTeamC"), pageRequest);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setMemberName("fanOut");
+        memberCond.setMemberNameMatch(MemberNameMatch.PREFIX);
+        Page<MemberTeamDto> single = memberRepository.searchPageSimple(memberCond, pageRequest);
+
+        assertThat(fanOut.getTotalElements()).isEqualTo(9);
+        assertThat(fanOut.getContent()).extracting("memberName").containsExactly("fanOut6", "fanOut5", "fanOut4");
+        assertThat(fanOut.getContent()).extracting("memberName")
+                .containsExactlyElementsOf(single.getContent().stream()
+                        .map(MemberTeamDto::getMemberName)
+                        .collect(Collectors.toList()));
+    }
+}
\ No newline at end of file
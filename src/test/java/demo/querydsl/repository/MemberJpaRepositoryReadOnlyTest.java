@@ -0,0 +1,113 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.entity.Member;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * readOnly 트랜잭션 동작은 테스트 트랜잭션 안에서는 적용되지 않으므로 (참여한 트랜잭션은 바깥 설정을 따름)
+ * 테스트 트랜잭션 없이 커밋, 끝나면 삭제
+ */
+@SpringBootTest
+class MemberJpaRepositoryReadOnlyTest {
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                Member member = new Member("readOnlyMember" + i, i * 10);
+                entityManager.persist(member);
+                ids.add(member.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("select m from Member m where m.name like 'readOnlyMember%'", Member.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+    }
+
+    @Test
+    public void queryMethodsRunInReadOnlyTransaction() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setMemberName("readOnlyMember0");
+
+        List<Boolean> readOnly = new ArrayList<>();
+        memberJpaRepository.streamByWhereParam(memberCond,
+                memberTeamDto -> readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+
+        assertThat(readOnly).containsExactly(true);
+    }
+
+    /**
+     * readOnly 트랜잭션에서 읽은 엔티티는 스냅샷이 없어서 바꿔도 flush 되지 않는다
+     */
+    @Test
+    public void readOnlyTransactionSkipsDirtyChecking() {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Member member = memberJpaRepository.findById(ids.get(0)).get();
+            member.setAge(99);
+
+            assertThat(entityManager.unwrap(Session.class).isReadOnly(member)).isTrue();
+            // FlushMode.AUTO 였으면 네이티브 쿼리 전에 update 가 나간다
+            Object age = entityManager.createNativeQuery("select age from member where member_id = ?")
+                    .setParameter(1, ids.get(0))
+                    .getSingleResult();
+            assertThat(((Number) age).intValue()).isEqualTo(0);
+        });
+
+        assertThat(memberJpaRepository.findById(ids.get(0)).get().getAge()).isEqualTo(0);
+    }
+
+    @Test
+    public void scanAllStatelessVisitsEveryRowDetached() {
+        List<Member> scanned = new ArrayList<>();
+        List<Boolean> managed = new ArrayList<>();
+        memberJpaRepository.scanAllStateless(member -> {
+            scanned.add(member);
+            managed.add(entityManager.contains(member));
+        });
+
+        Long total = transactionTemplate.execute(status -> entityManager
+                .createQuery("select count(m) from Member m", Long.class)
+                .getSingleResult());
+        assertThat(scanned).hasSize(total.intValue());
+        assertThat(scanned).extracting(Member::getId).containsAll(ids);
+        assertThat(managed).containsOnly(false);
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,4 +73,76 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("memberName").containsExactly("memberTest4");
     }
 
+    @Test
+    public void streamTest() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20, teamA);
+        Member member3 = new Member("memberTest3", 30, teamB);
+        Member member4 = new Member("memberTest4", 40, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("teamTestB");
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        memberJpaRepository.streamByWhereParam(memberCond, result::add);
+
+        assertThat(result).extracting("memberName").containsExactly("memberTest3", "memberTest4");
+    }
+
+    @Test
+    public void saveAllTest() {
+
+        Team teamA = new Team("teamTestA");
+        entityManager.persist(teamA);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("bulkMember" + i, i, teamA));
+        }
+
+        long count = memberJpaRepository.saveAll(members);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("teamTestA");
+
+        assertThat(count).isEqualTo(250);
+        assertThat(memberJpaRepository.searchByWhereParam(memberCond)).hasSize(250);
+        // 저장한 회원만 detach, 호출한 쪽의 팀은 계속 영속 상태
+        assertThat(entityManager.contains(teamA)).isTrue();
+        assertThat(entityManager.contains(members.get(0))).isFalse();
+    }
+
+    @Test
+    public void searchWithoutTeamCondTest() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setAgeLoe(20);
+
+        List<MemberTeamDto> result = memberJpaRepository.searchByWhereParam(memberCond);
+
+        // 팀 수만큼 곱해지지 않고, 팀 없는 회원도 포함
+        assertThat(result).extracting("memberName").containsExactly("memberTest1", "memberTest2");
+        assertThat(result).extracting("teamName").containsExactly("teamTestA", null);
+    }
+
 }
\ No newline at end of file
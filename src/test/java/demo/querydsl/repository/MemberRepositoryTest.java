@@ -1,6 +1,9 @@
 package demo.querydsl.repository;
 
 import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberCountStrategy;
+import demo.querydsl.dto.MemberKeysetSlice;
+import demo.querydsl.dto.MemberPage;
 import demo.querydsl.dto.MemberTeamDto;
 import demo.querydsl.entity.Member;
 import demo.querydsl.entity.Team;
@@ -9,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
@@ -96,4 +100,166 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("memberName").containsExactly("memberTest1", "memberTest2", "memberTest3");
 
     }
+
+    @Test
+    public void searchPageComplex() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20, teamA);
+        Member member3 = new Member("memberTest3", 30, teamB);
+        Member member4 = new Member("memberTest4", 40, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("teamTestB");
+        PageRequest pageRequest = PageRequest.of(0, 3);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(memberCond, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting("memberName").containsExactly("memberTest3", "memberTest4");
+
+        // 꽉 찬 첫 페이지, 마지막 페이지가 아니므로 카운트 쿼리 실행
+        memberCond.setTeamName("teamTestA");
+        Page<MemberTeamDto> fullPage = memberRepository.searchPageComplex(memberCond, PageRequest.of(0, 1));
+
+        assertThat(fullPage.getTotalElements()).isEqualTo(2);
+        assertThat(fullPage.getTotalPages()).isEqualTo(2);
+        assertThat(fullPage.getContent()).extracting("memberName").containsExactly("memberTest1");
+    }
+
+    @Test
+    public void searchKeyset() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20, teamA);
+        Member member3 = new Member("memberTest3", 30, teamB);
+        Member member4 = new Member("memberTest4", 40, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberCond memberCond = new MemberCond();
+
+        MemberKeysetSlice first = memberRepository.searchKeyset(memberCond, null, 3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).extracting("memberName").containsExactly("memberTest1", "memberTest2", "memberTest3");
+
+        MemberKeysetSlice second = memberRepository.searchKeyset(memberCond, first.getNextCursor(), 3);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getContent()).extracting("memberName").containsExactly("memberTest4");
+    }
+
+    @Test
+    public void searchCacheable() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20, teamA);
+        Member member3 = new Member("memberTest3", 30, teamB);
+        Member member4 = new Member("memberTest4", 40, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("teamTestB");
+
+        assertThat(memberRepository.searchCacheable(memberCond)).hasSize(2);
+        assertThat(memberRepository.searchCacheable(memberCond)).hasSize(2);
+
+        // member 쓰기가 flush 되면 캐시된 결과는 무효화
+        entityManager.persist(new Member("memberTest5", 50, teamB));
+        entityManager.flush();
+
+        assertThat(memberRepository.searchCacheable(memberCond)).extracting("memberName")
+                .containsExactly("memberTest3", "memberTest4", "memberTest5");
+    }
+
+    @Test
+    public void searchPageSimpleSort() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20, teamA);
+        Member member3 = new Member("memberTest3", 30, teamB);
+        Member member4 = new Member("memberTest4", 30, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberCond memberCond = new MemberCond();
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Order.desc("teamName"), Sort.Order.desc("age")));
+
+        Page<MemberTeamDto> result = memberRepository.searchPageSimple(memberCond, pageRequest);
+
+        // 같은 팀/나이는 member.id 순
+        assertThat(result.getContent()).extracting("memberName").containsExactly("memberTest3", "memberTest4", "memberTest2");
+    }
+
+    @Test
+    public void searchPageCountStrategy() {
+
+        Team teamA = new Team("teamTestA");
+        Team teamB = new Team("teamTestB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = new Member("memberTest1", 10, teamA);
+        Member member2 = new Member("memberTest2", 20, teamA);
+        Member member3 = new Member("memberTest3", 30, teamB);
+        Member member4 = new Member("memberTest4", 40, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("teamTestB");
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        MemberPage exact = memberRepository.searchPage(memberCond, pageRequest, MemberCountStrategy.EXACT);
+        assertThat(exact.getTotalElements()).isEqualTo(2);
+        assertThat(exact.isTotalExact()).isTrue();
+
+        MemberPage miss = memberRepository.searchPage(memberCond, pageRequest, MemberCountStrategy.CACHED);
+        MemberPage hit = memberRepository.searchPage(memberCond, pageRequest, MemberCountStrategy.CACHED);
+        assertThat(miss.isTotalExact()).isTrue();
+        assertThat(hit.isTotalExact()).isFalse();
+        assertThat(hit.getTotalElements()).isEqualTo(2);
+
+        MemberPage approximate = memberRepository.searchPage(memberCond, pageRequest, MemberCountStrategy.APPROXIMATE);
+        assertThat(approximate.isTotalExact()).isFalse();
+        assertThat(approximate.getTotalElements()).isGreaterThanOrEqualTo(2);
+
+        // 첫 페이지에 다 들어오면 컨텐츠로 건수를 알 수 있어서 항상 정확
+        MemberPage single = memberRepository.searchPage(memberCond, PageRequest.of(0, 3), MemberCountStrategy.APPROXIMATE);
+        assertThat(single.isTotalExact()).isTrue();
+        assertThat(single.getTotalElements()).isEqualTo(2);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.search.MemberNameIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSqlConditionTest {
+
+    @Test
+    public void joinFollowsTeamCondition() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setAgeGoe(10);
+
+        MemberSqlCondition noTeam = MemberSqlCondition.of(memberCond, null);
+        assertThat(noTeam.from(false)).isEqualTo(" from member m");
+        assertThat(noTeam.from(true)).contains("left join team t");
+        assertThat(noTeam.where()).isEqualTo(" where m.age >= ?");
+
+        memberCond.setTeamName("teamA");
+        memberCond.setMemberName("member1");
+        MemberSqlCondition withTeam = MemberSqlCondition.of(memberCond, null);
+        assertThat(withTeam.from(true)).isEqualTo(" from member m join team t on m.team_id = t.team_id");
+        assertThat(withTeam.where()).isEqualTo(" where m.name = ? and t.name = ? and m.age >= ?");
+        assertThat(withTeam.args()).containsExactly("member1", "teamA", 10);
+    }
+
+    /**
+     * 인덱스 id 는 좁히기용, 이름은 항상 like 로 다시 확인
+     */
+    @Test
+    public void nameIndexNarrowsLike() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setMemberName("mem_");
+        memberCond.setMemberNameMatch(MemberNameMatch.PREFIX);
+
+        MemberSqlCondition narrowed = MemberSqlCondition.of(memberCond, nameCondition(Arrays.asList(1L, 2L)));
+        assertThat(narrowed.where()).isEqualTo(" where m.member_id in (?, ?) and m.name like ? escape '!'");
+        assertThat(narrowed.args()).containsExactly(1L, 2L, "mem!_%");
+
+        MemberSqlCondition noMatch = MemberSqlCondition.of(memberCond, nameCondition(Collections.emptyList()));
+        assertThat(noMatch.where()).isEqualTo(" where 1 = 0");
+
+        // MAX_IDS 초과 -> like 만
+        memberCond.setMemberNameMatch(MemberNameMatch.CONTAINS);
+        MemberSqlCondition overLimit = MemberSqlCondition.of(memberCond, nameCondition(null));
+        assertThat(overLimit.where()).isEqualTo(" where m.name like ? escape '!'");
+        assertThat(overLimit.args()).containsExactly("%mem!_%");
+    }
+
+    private static MemberNameCondition nameCondition(List<Long> ids) {
+        return new MemberNameCondition(new MemberNameIndex(null) {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public List<Long> findIds(String name, MemberNameMatch match, int limit) {
+                return ids;
+            }
+        });
+    }
+}
\ No newline at end of file
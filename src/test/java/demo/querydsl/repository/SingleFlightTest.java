@@ -0,0 +1,54 @@
+package demo.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    @Test
+    public void concurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(60_000);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("teamA", () -> {
+                    executions.incrementAndGet();
+                    release.await();
+                    return 42;
+                })));
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get()).isEqualTo(42);
+            }
+            assertThat(executions.get()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void withoutTtlSequentialCallsRunAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(0);
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("teamA", executions::incrementAndGet);
+        singleFlight.execute("teamA", executions::incrementAndGet);
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+}
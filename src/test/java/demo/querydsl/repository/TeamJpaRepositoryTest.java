@@ -0,0 +1,47 @@
+package demo.querydsl.repository;
+
+import demo.querydsl.dto.TeamMembersDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import demo.querydsl.metrics.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamJpaRepositoryTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+
+    @Test
+    public void findTeamsWithMembers() {
+        for (int i = 0; i < 20; i++) {
+            Team team = new Team("teamTest" + i);
+            entityManager.persist(team);
+            entityManager.persist(new Member("memberTest" + i + "-1", 10, team));
+            entityManager.persist(new Member("memberTest" + i + "-2", 20, team));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        int statementsBefore = StatementCounter.current();
+        List<TeamMembersDto> result = teamJpaRepository.findTeamsWithMembers(PageRequest.of(0, 1000));
+        int statements = StatementCounter.current() - statementsBefore;
+
+        assertThat(statements).isEqualTo(2);
+        assertThat(result).filteredOn(dto -> dto.getTeamName().startsWith("teamTest")).hasSize(20)
+                .allSatisfy(dto -> assertThat(dto.getMembers()).hasSize(2));
+    }
+}
@@ -0,0 +1,57 @@
+package demo.querydsl.search;
+
+import demo.querydsl.dto.MemberNameMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberNameNgramIndexTest {
+
+    MemberNameNgramIndex index;
+
+    @BeforeEach
+    public void before() {
+        index = new MemberNameNgramIndex();
+        index.put(1L, "member1");
+        index.put(2L, "member2");
+        index.put(3L, "member10");
+        index.put(4L, "Kim");
+    }
+
+    @Test
+    public void prefixTest() {
+        assertThat(index.findIds("member1", MemberNameMatch.PREFIX, 100)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.findIds("mem", MemberNameMatch.PREFIX, 100)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        // DB 쿼리, 메모리 스냅샷과 같이 대소문자 구분
+        assertThat(index.findIds("MEM", MemberNameMatch.PREFIX, 100)).isEmpty();
+    }
+
+    @Test
+    public void containsTest() {
+        assertThat(index.findIds("ber1", MemberNameMatch.CONTAINS, 100)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.findIds("10", MemberNameMatch.CONTAINS, 100)).containsExactly(3L);
+        assertThat(index.findIds("im", MemberNameMatch.CONTAINS, 100)).containsExactly(4L);
+        assertThat(index.findIds("kim", MemberNameMatch.CONTAINS, 100)).isEmpty();
+        assertThat(index.findIds("xyz", MemberNameMatch.CONTAINS, 100)).isEmpty();
+    }
+
+    @Test
+    public void renameAndRemoveTest() {
+        index.put(1L, "renamed");
+        index.remove(2L);
+
+        assertThat(index.findIds("member", MemberNameMatch.PREFIX, 100)).containsExactly(3L);
+        assertThat(index.findIds("name", MemberNameMatch.CONTAINS, 100)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void overLimitTest() {
+        assertThat(index.findIds("member", MemberNameMatch.PREFIX, 2)).isNull();
+        assertThat(index.findIds("mem", MemberNameMatch.CONTAINS, 2)).isNull();
+        // 3글자 미만 CONTAINS 는 전체 이름을 훑고, limit 도 같이 적용
+        assertThat(index.findIds("me", MemberNameMatch.CONTAINS, 2)).isNull();
+        assertThat(index.findIds("me", MemberNameMatch.CONTAINS, 3)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+}
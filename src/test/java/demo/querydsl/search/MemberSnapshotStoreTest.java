@@ -0,0 +1,80 @@
+package demo.querydsl.search;
+
+import demo.querydsl.dto.MemberCond;
+import demo.querydsl.dto.MemberNameMatch;
+import demo.querydsl.dto.MemberTeamDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSnapshotStoreTest {
+
+    MemberSnapshotStore store;
+
+    @BeforeEach
+    public void before() {
+        store = new MemberSnapshotStore();
+        store.putTeam(1L, "teamA");
+        store.putTeam(2L, "teamB");
+        store.putMember(1L, "member1", 10, 1L);
+        store.putMember(2L, "member2", 20, 1L);
+        store.putMember(3L, "member3", 30, 2L);
+        store.putMember(4L, "member4", 40, 2L);
+        store.putMember(5L, "member5", 50, null);
+    }
+
+    @Test
+    public void searchTest() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setAgeGoe(15);
+        memberCond.setAgeLoe(40);
+        memberCond.setTeamName("teamB");
+
+        List<MemberTeamDto> result = store.search(memberCond);
+
+        assertThat(result).extracting("memberName").containsExactly("member3", "member4");
+        assertThat(result).extracting("teamName").containsOnly("teamB");
+    }
+
+    @Test
+    public void searchWithoutTeamCondTest() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setAgeGoe(40);
+
+        List<MemberTeamDto> result = store.search(memberCond);
+
+        assertThat(result).extracting("memberName").containsExactly("member4", "member5");
+        assertThat(result.get(1).getTeamName()).isNull();
+    }
+
+    @Test
+    public void nameMatchTest() {
+        MemberCond memberCond = new MemberCond();
+        memberCond.setMemberName("member");
+        memberCond.setMemberNameMatch(MemberNameMatch.PREFIX);
+
+        assertThat(store.search(memberCond)).hasSize(5);
+
+        memberCond.setMemberNameMatch(null);
+        assertThat(store.search(memberCond)).isEmpty();
+
+        // DB 쿼리와 같이 대소문자 구분
+        memberCond.setMemberName("MEMBER1");
+        assertThat(store.search(memberCond)).isEmpty();
+    }
+
+    @Test
+    public void incrementalUpdateTest() {
+        store.putMember(1L, "member1", 35, 2L);
+        store.removeMember(4L);
+        store.putTeam(2L, "teamC");
+
+        MemberCond memberCond = new MemberCond();
+        memberCond.setTeamName("teamC");
+
+        assertThat(store.search(memberCond)).extracting("memberName").containsExactly("member1", "member3");
+    }
+}
@@ -0,0 +1,28 @@
+package demo.querydsl.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RebuildableSnapshotTest {
+
+    @Test
+    public void changesDuringRebuildAreReplayed() {
+        RebuildableSnapshot<List<String>> snapshot = new RebuildableSnapshot<>(new ArrayList<>());
+
+        snapshot.rebuild(() -> {
+            // 스캔 도중 커밋된 변경
+            snapshot.apply(names -> names.add("member2"));
+            return new ArrayList<>(Arrays.asList("member1"));
+        });
+
+        assertThat(snapshot.get()).containsExactly("member1", "member2");
+
+        snapshot.apply(names -> names.remove("member1"));
+        assertThat(snapshot.get()).containsExactly("member2");
+    }
+}
@@ -0,0 +1,161 @@
+package demo.querydsl.stats;
+
+import demo.querydsl.dto.TeamNameStatsDto;
+import demo.querydsl.entity.Member;
+import demo.querydsl.entity.Team;
+import demo.querydsl.repository.TeamStatsRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * team_stats 는 커밋 직전에 갱신되므로 테스트 트랜잭션 없이 커밋하면서 확인, 끝나면 삭제
+ */
+@SpringBootTest
+class TeamStatsTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    TeamStatsReconciler teamStatsReconciler;
+
+    /**
+     * 엔티티 삭제로 지워서 이름 인덱스/스냅샷 갱신 이벤트가 그대로 돌게 한다
+     */
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("select m from Member m where m.name like 'statsMember%'", Member.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("delete from team_stats where team_name like 'statsTeam%'").executeUpdate();
+            entityManager.createQuery("select t from Team t where t.name like 'statsTeam%'", Team.class)
+                    .getResultList()
+                    .forEach(entityManager::remove);
+        });
+    }
+
+    @Test
+    public void incrementalStats() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team team = new Team("statsTeam");
+            entityManager.persist(team);
+            Member member1 = new Member("statsMember1", 10, team);
+            Member member2 = new Member("statsMember2", 20, team);
+            entityManager.persist(member1);
+            entityManager.persist(member2);
+            return new Long[]{team.getId(), member1.getId(), member2.getId()};
+        });
+
+        TeamNameStatsDto inserted = stats("statsTeam");
+        assertThat(inserted.getMemberCount()).isEqualTo(2);
+        assertThat(inserted.getAgeAvg()).isEqualTo(15);
+        assertThat(inserted.getAgeMin()).isEqualTo(10);
+
+        // 나이 변경 -> 최소값 다시 계산
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Member.class, ids[1]).setAge(50));
+
+        TeamNameStatsDto updated = stats("statsTeam");
+        assertThat(updated.getAgeSum()).isEqualTo(70);
+        assertThat(updated.getAgeMin()).isEqualTo(20);
+        assertThat(updated.getAgeMax()).isEqualTo(50);
+
+        // 어긋난 값은 재계산으로 복구
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createNativeQuery("update team_stats set member_count = 99 where team_id = " + ids[0])
+                .executeUpdate());
+        assertThat(teamStatsReconciler.reconcile()).isGreaterThanOrEqualTo(1);
+        assertThat(stats("statsTeam").getMemberCount()).isEqualTo(2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.remove(entityManager.find(Member.class, ids[1]));
+            entityManager.remove(entityManager.find(Member.class, ids[2]));
+        });
+
+        TeamNameStatsDto deleted = stats("statsTeam");
+        assertThat(deleted.getMemberCount()).isEqualTo(0);
+        assertThat(deleted.getAgeMin()).isNull();
+    }
+
+    @Test
+    public void detachedTeamMove() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team from = new Team("statsTeamFrom");
+            Team to = new Team("statsTeamTo");
+            entityManager.persist(from);
+            entityManager.persist(to);
+            Member member = new Member("statsMemberMoved", 30, from);
+            entityManager.persist(member);
+            return new Long[]{to.getId(), member.getId()};
+        });
+
+        // 이전 상태 스냅샷이 없는 준영속 엔티티를 Session.update 로 반영
+        Member detached = transactionTemplate.execute(status -> entityManager.find(Member.class, ids[1]));
+        Team to = transactionTemplate.execute(status -> entityManager.find(Team.class, ids[0]));
+        detached.setTeam(to);
+        transactionTemplate.executeWithoutResult(status -> entityManager.unwrap(Session.class).update(detached));
+
+        assertThat(stats("statsTeamFrom").getMemberCount()).isEqualTo(0);
+        TeamNameStatsDto moved = stats("statsTeamTo");
+        assertThat(moved.getMemberCount()).isEqualTo(1);
+        assertThat(moved.getAgeMin()).isEqualTo(30);
+    }
+
+    @Test
+    public void teamRename() {
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("statsTeamOld");
+            entityManager.persist(team);
+            entityManager.persist(new Member("statsMemberRenamed", 25, team));
+            return team.getId();
+        });
+
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Team.class, teamId).setName("statsTeamNew"));
+
+        assertThat(teamStatsRepository.findStatsByTeamName("statsTeamOld")).isEmpty();
+        assertThat(stats("statsTeamNew").getMemberCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sameTeamNameIsAggregated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team first = new Team("statsTeamDup");
+            Team second = new Team("statsTeamDup");
+            entityManager.persist(first);
+            entityManager.persist(second);
+            entityManager.persist(new Member("statsMemberDup1", 10, first));
+            entityManager.persist(new Member("statsMemberDup2", 30, second));
+        });
+
+        TeamNameStatsDto dup = stats("statsTeamDup");
+        assertThat(dup.getTeamCount()).isEqualTo(2);
+        assertThat(dup.getMemberCount()).isEqualTo(2);
+        assertThat(dup.getAgeMin()).isEqualTo(10);
+        assertThat(dup.getAgeMax()).isEqualTo(30);
+    }
+
+    private TeamNameStatsDto stats(String teamName) {
+        return transactionTemplate.execute(status -> {
+            entityManager.clear();
+            return teamStatsRepository.findStatsByTeamName(teamName).get();
+        });
+    }
+}